@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import javax.tools.Diagnostic;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Generates a {@code sh.cody.namedvars.annotation.VariableImporter} for every class that declares fields annotated
+ * with {@code @GenerateVariable}, so {@code Scope.importAll} doesn't have to discover and access them reflectively.
+ *
+ * A field is accessed directly when it's neither private nor final, has a non-generic type, and uses the default
+ * type and delegate. Any other annotated field is imported through {@code Scope.importField}. Classes which can't be
+ * referenced from their package (e.g. private nested classes) are skipped and left to reflection entirely.
+ */
+@SupportedAnnotationTypes(GenerateVariableProcessor.GENERATE_VARIABLE)
+public final class GenerateVariableProcessor extends AbstractProcessor {
+   static final String GENERATE_VARIABLE = "sh.cody.namedvars.annotation.GenerateVariable";
+
+   private static final String IMPORTER_SUFFIX = "_VariableImporter";
+   private static final String AUTO = "sh.cody.namedvars.annotation.Auto";
+   private static final String DEFAULT_DELEGATE = "sh.cody.namedvars.delegate.FieldHandleDelegate";
+   private static final Map<TypeKind, String> PRIMITIVE_DELEGATES = new EnumMap<>(TypeKind.class);
+
+   static {
+      PRIMITIVE_DELEGATES.put(TypeKind.INT, "Int");
+      PRIMITIVE_DELEGATES.put(TypeKind.LONG, "Long");
+      PRIMITIVE_DELEGATES.put(TypeKind.DOUBLE, "Double");
+      PRIMITIVE_DELEGATES.put(TypeKind.BOOLEAN, "Boolean");
+   }
+
+   private Elements elements;
+   private Types types;
+
+   @Override
+   public synchronized void init(ProcessingEnvironment processingEnv) {
+      super.init(processingEnv);
+      this.elements = processingEnv.getElementUtils();
+      this.types = processingEnv.getTypeUtils();
+   }
+
+   @Override
+   public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+   }
+
+   @Override
+   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      TypeElement annotation = this.elements.getTypeElement(GENERATE_VARIABLE);
+      if(annotation == null) {
+         return false;
+      }
+
+      Map<TypeElement, List<VariableElement>> fieldsByClass = new LinkedHashMap<>();
+      for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+         if(element.getKind() == ElementKind.FIELD) {
+            fieldsByClass.computeIfAbsent((TypeElement) element.getEnclosingElement(), ignored -> new ArrayList<>())
+                  .add((VariableElement) element);
+         }
+      }
+
+      for(Map.Entry<TypeElement, List<VariableElement>> entry : fieldsByClass.entrySet()) {
+         if(isAccessible(entry.getKey())) {
+            this.generate(entry.getKey(), entry.getValue());
+         }
+      }
+
+      return false;
+   }
+
+   private void generate(TypeElement owner, List<VariableElement> fields) {
+      String packageName = this.elements.getPackageOf(owner).getQualifiedName().toString();
+      String binaryName = this.elements.getBinaryName(owner).toString();
+      String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+            + IMPORTER_SUFFIX;
+      String ownerName = this.types.erasure(owner.asType()).toString();
+
+      StringBuilder source = new StringBuilder();
+      if(!packageName.isEmpty()) {
+         source.append("package ").append(packageName).append(";\n\n");
+      }
+
+      source.append("// Generated by ").append(GenerateVariableProcessor.class.getName()).append(", do not edit.\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(simpleName)
+            .append(" implements sh.cody.namedvars.annotation.VariableImporter<").append(ownerName).append("> {\n")
+            .append("   @Override\n")
+            .append("   public sh.cody.namedvars.Variable<?>[] importAll(sh.cody.namedvars.Scope scope, ")
+            .append(ownerName).append(" instance,\n")
+            .append("         String namespace) throws sh.cody.namedvars.exception.ScopeException {\n")
+            .append("      String prefix = namespace.isEmpty() ? \"\" : namespace + \".\";\n")
+            .append("      return new sh.cody.namedvars.Variable<?>[] {\n");
+
+      for(VariableElement field : fields) {
+         source.append("         ");
+         this.appendImport(source, ownerName, field);
+         source.append(",\n");
+      }
+
+      source.append("      };\n")
+            .append("   }\n\n")
+            .append("   private static java.lang.reflect.Field field(String name) {\n")
+            .append("      try {\n")
+            .append("         return ").append(ownerName).append(".class.getDeclaredField(name);\n")
+            .append("      } catch(NoSuchFieldException exception) {\n")
+            .append("         throw new IllegalStateException(\"Generated importer is out of date.\", exception);\n")
+            .append("      }\n")
+            .append("   }\n")
+            .append("}\n");
+
+      try(Writer writer = this.processingEnv.getFiler()
+            .createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, owner)
+            .openWriter()) {
+         writer.write(source.toString());
+      } catch(IOException exception) {
+         this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+               "Failed to generate variable importer: " + exception.getMessage(), owner);
+      }
+   }
+
+   private void appendImport(StringBuilder source, String ownerName, VariableElement field) {
+      Map<String, Object> values = this.annotationValues(field);
+      String fieldName = field.getSimpleName().toString();
+      TypeMirror fieldType = field.asType();
+      Set<Modifier> modifiers = field.getModifiers();
+
+      boolean direct = !modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.FINAL)
+            && AUTO.equals(values.get("type").toString()) && DEFAULT_DELEGATE.equals(values.get("delegate").toString())
+            && this.types.isSameType(this.types.erasure(fieldType), fieldType);
+
+      if(!direct) {
+         source.append("scope.importField(instance, field(").append(this.elements.getConstantExpression(fieldName))
+               .append("), namespace)");
+         return;
+      }
+
+      String name = values.get("value").toString().isEmpty() ? fieldName : values.get("value").toString();
+      String access = (modifiers.contains(Modifier.STATIC) ? ownerName : "instance") + "." + fieldName;
+      String primitive = PRIMITIVE_DELEGATES.get(fieldType.getKind());
+
+      source.append("scope.add(prefix + ").append(this.elements.getConstantExpression(name)).append(", ")
+            .append(fieldType).append(".class, ")
+            .append(this.elements.getConstantExpression(values.get("description").toString())).append(", ");
+
+      if(primitive != null) {
+         source.append("new sh.cody.namedvars.delegate.").append(primitive).append("Delegate() {\n")
+               .append("            @Override\n")
+               .append("            public ").append(fieldType).append(" get").append(primitive).append("() {\n")
+               .append("               return ").append(access).append(";\n")
+               .append("            }\n\n")
+               .append("            @Override\n")
+               .append("            public void set").append(primitive).append("(").append(fieldType)
+               .append(" value) {\n")
+               .append("               ").append(access).append(" = value;\n")
+               .append("            }\n")
+               .append("         })");
+      } else {
+         source.append("sh.cody.namedvars.delegate.Delegate.fromGetterAndSetter(() -> ").append(access)
+               .append(", value -> ").append(access).append(" = value))");
+      }
+   }
+
+   private Map<String, Object> annotationValues(VariableElement field) {
+      Map<String, Object> values = new HashMap<>();
+
+      for(AnnotationMirror mirror : field.getAnnotationMirrors()) {
+         Element annotationElement = mirror.getAnnotationType().asElement();
+         if(((TypeElement) annotationElement).getQualifiedName().contentEquals(GENERATE_VARIABLE)) {
+            for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                  this.elements.getElementValuesWithDefaults(mirror).entrySet()) {
+               values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+            }
+         }
+      }
+
+      return values;
+   }
+
+   private static boolean isAccessible(TypeElement type) {
+      for(Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+         TypeElement enclosing = (TypeElement) element;
+         if(enclosing.getModifiers().contains(Modifier.PRIVATE) || enclosing.getNestingKind().isNested()
+               && enclosing.getNestingKind() != NestingKind.MEMBER) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
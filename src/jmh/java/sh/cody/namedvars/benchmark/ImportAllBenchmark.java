@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.annotation.GenerateVariable;
+import sh.cody.namedvars.exception.ScopeException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Scope#importAll(Object)} of a class with 64 annotated fields into an empty scope.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportAllBenchmark {
+   private final WideConfig config = new WideConfig();
+
+   @Benchmark
+   public Variable<?>[] importAll() throws ScopeException {
+      return new Scope().importAll(this.config);
+   }
+
+   public static class WideConfig {
+      @GenerateVariable(description = "Field number 0.")
+      public int field0 = 0;
+      @GenerateVariable(description = "Field number 1.")
+      public long field1 = 1L;
+      @GenerateVariable(description = "Field number 2.")
+      public double field2 = 2.5;
+      @GenerateVariable(description = "Field number 3.")
+      public boolean field3 = false;
+      @GenerateVariable(description = "Field number 4.")
+      public String field4 = "value4";
+      @GenerateVariable(description = "Field number 5.")
+      public float field5 = 5.25f;
+      @GenerateVariable(description = "Field number 6.")
+      public short field6 = (short) 6;
+      @GenerateVariable(description = "Field number 7.")
+      public byte field7 = (byte) 7;
+      @GenerateVariable(description = "Field number 8.")
+      public int field8 = 8;
+      @GenerateVariable(description = "Field number 9.")
+      public long field9 = 9L;
+      @GenerateVariable(description = "Field number 10.")
+      public double field10 = 10.5;
+      @GenerateVariable(description = "Field number 11.")
+      public boolean field11 = false;
+      @GenerateVariable(description = "Field number 12.")
+      public String field12 = "value12";
+      @GenerateVariable(description = "Field number 13.")
+      public float field13 = 13.25f;
+      @GenerateVariable(description = "Field number 14.")
+      public short field14 = (short) 14;
+      @GenerateVariable(description = "Field number 15.")
+      public byte field15 = (byte) 15;
+      @GenerateVariable(description = "Field number 16.")
+      public int field16 = 16;
+      @GenerateVariable(description = "Field number 17.")
+      public long field17 = 17L;
+      @GenerateVariable(description = "Field number 18.")
+      public double field18 = 18.5;
+      @GenerateVariable(description = "Field number 19.")
+      public boolean field19 = false;
+      @GenerateVariable(description = "Field number 20.")
+      public String field20 = "value20";
+      @GenerateVariable(description = "Field number 21.")
+      public float field21 = 21.25f;
+      @GenerateVariable(description = "Field number 22.")
+      public short field22 = (short) 22;
+      @GenerateVariable(description = "Field number 23.")
+      public byte field23 = (byte) 23;
+      @GenerateVariable(description = "Field number 24.")
+      public int field24 = 24;
+      @GenerateVariable(description = "Field number 25.")
+      public long field25 = 25L;
+      @GenerateVariable(description = "Field number 26.")
+      public double field26 = 26.5;
+      @GenerateVariable(description = "Field number 27.")
+      public boolean field27 = false;
+      @GenerateVariable(description = "Field number 28.")
+      public String field28 = "value28";
+      @GenerateVariable(description = "Field number 29.")
+      public float field29 = 29.25f;
+      @GenerateVariable(description = "Field number 30.")
+      public short field30 = (short) 30;
+      @GenerateVariable(description = "Field number 31.")
+      public byte field31 = (byte) 31;
+      @GenerateVariable(description = "Field number 32.")
+      public int field32 = 32;
+      @GenerateVariable(description = "Field number 33.")
+      public long field33 = 33L;
+      @GenerateVariable(description = "Field number 34.")
+      public double field34 = 34.5;
+      @GenerateVariable(description = "Field number 35.")
+      public boolean field35 = false;
+      @GenerateVariable(description = "Field number 36.")
+      public String field36 = "value36";
+      @GenerateVariable(description = "Field number 37.")
+      public float field37 = 37.25f;
+      @GenerateVariable(description = "Field number 38.")
+      public short field38 = (short) 38;
+      @GenerateVariable(description = "Field number 39.")
+      public byte field39 = (byte) 39;
+      @GenerateVariable(description = "Field number 40.")
+      public int field40 = 40;
+      @GenerateVariable(description = "Field number 41.")
+      public long field41 = 41L;
+      @GenerateVariable(description = "Field number 42.")
+      public double field42 = 42.5;
+      @GenerateVariable(description = "Field number 43.")
+      public boolean field43 = false;
+      @GenerateVariable(description = "Field number 44.")
+      public String field44 = "value44";
+      @GenerateVariable(description = "Field number 45.")
+      public float field45 = 45.25f;
+      @GenerateVariable(description = "Field number 46.")
+      public short field46 = (short) 46;
+      @GenerateVariable(description = "Field number 47.")
+      public byte field47 = (byte) 47;
+      @GenerateVariable(description = "Field number 48.")
+      public int field48 = 48;
+      @GenerateVariable(description = "Field number 49.")
+      public long field49 = 49L;
+      @GenerateVariable(description = "Field number 50.")
+      public double field50 = 50.5;
+      @GenerateVariable(description = "Field number 51.")
+      public boolean field51 = false;
+      @GenerateVariable(description = "Field number 52.")
+      public String field52 = "value52";
+      @GenerateVariable(description = "Field number 53.")
+      public float field53 = 53.25f;
+      @GenerateVariable(description = "Field number 54.")
+      public short field54 = (short) 54;
+      @GenerateVariable(description = "Field number 55.")
+      public byte field55 = (byte) 55;
+      @GenerateVariable(description = "Field number 56.")
+      public int field56 = 56;
+      @GenerateVariable(description = "Field number 57.")
+      public long field57 = 57L;
+      @GenerateVariable(description = "Field number 58.")
+      public double field58 = 58.5;
+      @GenerateVariable(description = "Field number 59.")
+      public boolean field59 = false;
+      @GenerateVariable(description = "Field number 60.")
+      public String field60 = "value60";
+      @GenerateVariable(description = "Field number 61.")
+      public float field61 = 61.25f;
+      @GenerateVariable(description = "Field number 62.")
+      public short field62 = (short) 62;
+      @GenerateVariable(description = "Field number 63.")
+      public byte field63 = (byte) 63;
+   }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Variable#parse(String)} and {@link Variable#parse(CharSequence, int, int)} for each built-in type.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+   public enum Verbosity {
+      LOW,
+      MEDIUM,
+      HIGH
+   }
+
+   @Param({"boolean", "byte", "short", "char", "int", "long", "float", "double", "Boolean", "Byte", "Short",
+         "Character", "Integer", "Long", "Float", "Double", "String", "enum"})
+   public String type;
+
+   private Variable<?> variable;
+   private String text;
+   private CharSequence line;
+
+   @Setup(Level.Trial)
+   public void setUp() throws ScopeException {
+      Scope scope = new Scope();
+
+      switch(this.type) {
+         case "boolean": this.create(scope, boolean.class, "true"); break;
+         case "byte": this.create(scope, byte.class, "-100"); break;
+         case "short": this.create(scope, short.class, "31000"); break;
+         case "char": this.create(scope, char.class, "x"); break;
+         case "int": this.create(scope, int.class, "1234567"); break;
+         case "long": this.create(scope, long.class, "40000000000"); break;
+         case "float": this.create(scope, float.class, "3.1415"); break;
+         case "double": this.create(scope, double.class, "2.718281828"); break;
+         case "Boolean": this.create(scope, Boolean.class, "false"); break;
+         case "Byte": this.create(scope, Byte.class, "100"); break;
+         case "Short": this.create(scope, Short.class, "-31000"); break;
+         case "Character": this.create(scope, Character.class, "y"); break;
+         case "Integer": this.create(scope, Integer.class, "7654321"); break;
+         case "Long": this.create(scope, Long.class, "-40000000000"); break;
+         case "Float": this.create(scope, Float.class, "0.5"); break;
+         case "Double": this.create(scope, Double.class, "1.5e-3"); break;
+         case "String": this.create(scope, String.class, "hello world"); break;
+         case "enum": this.create(scope, Verbosity.class, "medium"); break;
+         default: throw new IllegalArgumentException(this.type);
+      }
+   }
+
+   private void create(Scope scope, Class<?> type, String text) throws ScopeException {
+      this.variable = scope.create("variable", type);
+      this.text = text;
+      this.line = new StringBuilder("variable=").append(text);
+   }
+
+   @Benchmark
+   public Variable<?> parse() {
+      this.variable.parse(this.text);
+      return this.variable;
+   }
+
+   @Benchmark
+   public Variable<?> parseRange() {
+      this.variable.parse(this.line, 9, this.line.length());
+      return this.variable;
+   }
+}
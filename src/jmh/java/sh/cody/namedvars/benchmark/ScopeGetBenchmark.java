@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.VariableKey;
+import sh.cody.namedvars.exception.ScopeException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Scope#get(String)} and {@link Scope#get(VariableKey)} for scopes of increasing size, cycling
+ * through every variable.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeGetBenchmark {
+   @Param({"10", "1000", "100000", "1000000"})
+   public int size;
+
+   private Scope scope;
+   private String[] names;
+   private VariableKey<?>[] keys;
+   private int next;
+
+   @Setup(Level.Trial)
+   public void setUp() throws ScopeException {
+      this.scope = new Scope();
+      this.names = new String[this.size];
+      this.keys = new VariableKey<?>[this.size];
+
+      for(int i = 0; i < this.size; ++i) {
+         this.scope.create("variable" + i, int.class, i);
+         // a distinct instance, so lookups can't succeed on reference equality alone.
+         this.names[i] = new String("variable" + i);
+         this.keys[i] = this.scope.key(this.names[i], int.class);
+      }
+   }
+
+   @Benchmark
+   public Variable<?> get() {
+      String name = this.names[this.next];
+      if(++this.next == this.names.length) {
+         this.next = 0;
+      }
+
+      return this.scope.get(name);
+   }
+
+   @Benchmark
+   public Variable<?> getByKey() {
+      VariableKey<?> key = this.keys[this.next];
+      if(++this.next == this.keys.length) {
+         this.next = 0;
+      }
+
+      return this.scope.get(key);
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.delegate.*;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing an {@code int} variable through each kind of delegate, both boxed and unboxed.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableAccessBenchmark {
+   @Param({"stored", "field", "fieldHandle", "getterSetter"})
+   public String delegate;
+
+   public int value;
+
+   private Variable<Integer> variable;
+   private int next;
+
+   @Setup(Level.Trial)
+   public void setUp() throws Exception {
+      Scope scope = new Scope();
+      Field field = VariableAccessBenchmark.class.getField("value");
+
+      switch(this.delegate) {
+         case "stored":
+            this.variable = scope.create("variable", int.class);
+            break;
+         case "field":
+            this.variable = scope.add("variable", int.class, null, new FieldDelegate<>(this, field));
+            break;
+         case "fieldHandle":
+            this.variable = scope.add("variable", int.class, null, FieldHandleDelegate.of(this, field));
+            break;
+         case "getterSetter":
+            this.variable = scope.add("variable", int.class, () -> this.value, value -> this.value = value);
+            break;
+         default:
+            throw new IllegalArgumentException(this.delegate);
+      }
+   }
+
+   @Benchmark
+   public Integer get() {
+      return this.variable.get();
+   }
+
+   @Benchmark
+   public int getInt() {
+      return this.variable.getInt();
+   }
+
+   @Benchmark
+   public void set() {
+      // values outside of the Integer cache, so boxing allocates as it would for arbitrary values.
+      this.variable.set(1024 + (this.next++ & 1023));
+   }
+
+   @Benchmark
+   public void setInt() {
+      this.variable.setInt(1024 + (this.next++ & 1023));
+   }
+}
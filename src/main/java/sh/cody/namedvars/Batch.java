@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+import sh.cody.namedvars.exception.ScopeException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A set of updates to the variables of a {@link Scope} which are applied as a unit.
+ *
+ * {@link Batch#apply()} works in two phases: first every value is parsed (optionally in parallel on a
+ * {@link ForkJoinPool}); then, only if every value could be parsed, all values are committed to their delegates. If a
+ * delegate fails during the commit, every variable of the batch is restored to its previous value, including the one
+ * whose delegate failed. Listeners are only notified once every value has been committed, so they never observe a
+ * value that is rolled back, and the variables derived from the updated variables are then recomputed, each at most
+ * once per batch. Commits of batches in the same scope never interleave.
+ *
+ * Only listeners and derived variables see a batch as a unit: {@link Variable#get()} doesn't lock, so a thread that
+ * reads several variables while a batch is applied may observe a commit in progress, or a value that is then rolled
+ * back.
+ */
+public final class Batch {
+   private final Scope scope;
+   private final List<Update<?>> updates = new ArrayList<>();
+   private ForkJoinPool pool;
+
+   Batch(Scope scope) {
+      this.scope = scope;
+   }
+
+   /**
+    * Adds an update which parses a value for a variable.
+    *
+    * @param name the variable's name
+    * @param value unparsed value string
+    * @return this batch
+    * @throws ScopeException the scope doesn't contain a variable with this name
+    */
+   public Batch parse(String name, String value) throws ScopeException {
+      Variable<?> variable = this.scope.get(name);
+      if(variable == null) {
+         throw new ScopeException("No variable named '" + name + "' exists in this scope.");
+      }
+
+      this.updates.add(new Update<>(variable, value));
+      return this;
+   }
+
+   /**
+    * Adds an update which parses a value for a variable for each entry of a map.
+    *
+    * @param values unparsed value strings by variable name
+    * @return this batch
+    * @throws ScopeException the scope doesn't contain a variable named by one of the keys
+    */
+   public Batch parseAll(Map<String, String> values) throws ScopeException {
+      for(Map.Entry<String, String> entry : values.entrySet()) {
+         this.parse(entry.getKey(), entry.getValue());
+      }
+
+      return this;
+   }
+
+   /**
+    * Adds an update which sets a variable to a value.
+    *
+    * @param variable the variable
+    * @param value the new value
+    * @param <T> the variable's type
+    * @return this batch
+    */
+   public <T> Batch set(Variable<T> variable, T value) {
+      Update<T> update = new Update<>(variable, null);
+      update.value = value;
+      this.updates.add(update);
+      return this;
+   }
+
+   /**
+    * Parses the values in parallel on the {@link ForkJoinPool#commonPool()}.
+    *
+    * @return this batch
+    */
+   public Batch parallel() {
+      return this.parallel(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Parses the values in parallel on a {@link ForkJoinPool}.
+    *
+    * @param pool the pool
+    * @return this batch
+    */
+   public Batch parallel(ForkJoinPool pool) {
+      this.pool = Objects.requireNonNull(pool);
+      return this;
+   }
+
+   /**
+    * Parses all values and, if they could all be parsed, commits them. Concurrent readers aren't isolated from the
+    * commit, see {@link Batch}.
+    *
+    * @throws ScopeException a value couldn't be parsed or committed, no variable has been changed
+    */
+   public void apply() throws ScopeException {
+      if(this.pool == null || this.updates.size() < 2) {
+         this.updates.forEach(Update::parse);
+      } else {
+         List<ForkJoinTask<?>> tasks = new ArrayList<>(this.updates.size());
+         for(Update<?> update : this.updates) {
+            tasks.add(ForkJoinTask.adapt(update::parse));
+         }
+
+         this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+      }
+
+      for(Update<?> update : this.updates) {
+         if(update.failure != null) {
+            throw new ScopeException("Failed to parse the value of '" + update.variable.getName() + "'.",
+                  update.failure);
+         }
+      }
+
+      synchronized(this.scope.commitLock) {
+         for(int i = 0; i < this.updates.size(); ++i) {
+            try {
+               this.updates.get(i).commit();
+            } catch(RuntimeException exception) {
+               // the failed delegate may have stored the value before failing, so it's restored as well.
+               for(int j = i; j >= 0; --j) {
+                  try {
+                     this.updates.get(j).rollback();
+                  } catch(RuntimeException rollbackException) {
+                     exception.addSuppressed(rollbackException);
+                  }
+               }
+
+               throw new ScopeException("Failed to commit the value of '"
+                     + this.updates.get(i).variable.getName() + "'.", exception);
+            }
+         }
+
+         List<Variable<?>> changed = new ArrayList<>(this.updates.size());
+         for(Update<?> update : this.updates) {
+            changed.add(update.variable);
+         }
+
+         try {
+            for(Variable<?> variable : changed) {
+               variable.fire();
+            }
+         } finally {
+            Derivation.propagate(this.scope, changed);
+         }
+      }
+   }
+
+   private static final class Update<T> {
+      private final Variable<T> variable;
+      private final String text;
+      private T value;
+      private T previous;
+      private boolean committing;
+      private RuntimeException failure;
+
+      private Update(Variable<T> variable, String text) {
+         this.variable = variable;
+         this.text = text;
+      }
+
+      private void parse() {
+         if(this.text != null) {
+            try {
+               this.value = this.variable.parseValue(this.text);
+            } catch(RuntimeException exception) {
+               this.failure = exception;
+            }
+         }
+      }
+
+      private void commit() {
+         this.previous = this.variable.get();
+         this.committing = true;
+         this.variable.setSilently(this.value);
+      }
+
+      private void rollback() {
+         if(this.committing) {
+            this.variable.setSilently(this.previous);
+         }
+      }
+   }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+import sh.cody.namedvars.delegate.DerivedDelegate;
+import java.util.*;
+
+/**
+ * A node of the dependency graph of a {@link Scope}'s derived variables.
+ *
+ * Every derived variable has a rank one greater than the highest rank of its inputs, plain variables having rank 0.
+ * Since a derived variable can only depend on variables that already exist, the graph is acyclic, and recomputing the
+ * affected variables in order of rank recomputes every variable after all of its inputs. A variable is recomputed at
+ * most once per propagation, and variables whose value didn't change don't cause their dependents to be recomputed.
+ */
+final class Derivation {
+   static final Derivation[] NONE = {};
+
+   private static final Comparator<Derivation> ORDER =
+         Comparator.<Derivation>comparingInt(derivation -> derivation.rank)
+               .thenComparingInt(derivation -> derivation.variable.index);
+
+   final Variable<?> variable;
+   final DerivedDelegate<?> delegate;
+   final int rank;
+
+   Derivation(Variable<?> variable, DerivedDelegate<?> delegate, Variable<?>[] inputs) {
+      int rank = 0;
+      for(Variable<?> input : inputs) {
+         if(input.derivation != null) {
+            rank = Math.max(rank, input.derivation.rank);
+         }
+      }
+
+      this.variable = variable;
+      this.delegate = delegate;
+      this.rank = rank + 1;
+   }
+
+   /**
+    * Recomputes the derived variables which depend on changed variables, directly or indirectly.
+    *
+    * @param scope the scope of the changed variables
+    * @param changed the changed variables
+    */
+   static void propagate(Scope scope, Collection<? extends Variable<?>> changed) {
+      PriorityQueue<Derivation> queue = null;
+      Set<Derivation> queued = null;
+
+      // concurrent propagations would otherwise race to store values computed from different inputs.
+      synchronized(scope.commitLock) {
+         for(Variable<?> variable : changed) {
+            for(Derivation dependent : variable.dependents) {
+               if(queue == null) {
+                  queue = new PriorityQueue<>(ORDER);
+                  queued = new HashSet<>();
+               }
+
+               if(queued.add(dependent)) {
+                  queue.add(dependent);
+               }
+            }
+         }
+
+         if(queue == null) {
+            return;
+         }
+
+         for(Derivation derivation = queue.poll(); derivation != null; derivation = queue.poll()) {
+            if(derivation.delegate.recompute()) {
+               derivation.variable.fire();
+
+               for(Derivation dependent : derivation.variable.dependents) {
+                  if(queued.add(dependent)) {
+                     queue.add(dependent);
+                  }
+               }
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+import sh.cody.namedvars.annotation.*;
+import sh.cody.namedvars.delegate.*;
+import sh.cody.namedvars.exception.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The steps {@link Scope#importAll(Object, String)} takes to import an instance of a class, computed once per class.
+ *
+ * The class and each of its superclasses contribute one step, the topmost superclass first: the class'
+ * {@link VariableImporter} if one was generated, otherwise its fields annotated with {@link GenerateVariable}, whose
+ * names, types, descriptions and delegate factories are resolved up front. Importing an instance therefore only
+ * creates its delegates and adds the variables.
+ */
+final class ImportPlan {
+   private static final ClassValue<ImportPlan> PLANS = new ClassValue<ImportPlan>() {
+      @Override
+      protected ImportPlan computeValue(Class<?> type) {
+         return new ImportPlan(type);
+      }
+   };
+
+   private final Step[] steps;
+
+   private ImportPlan(Class<?> type) {
+      Deque<Step> steps = new ArrayDeque<>();
+
+      for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+         VariableImporter<Object> importer = VariableImporters.find(current);
+         if(importer != null) {
+            steps.addFirst(new ImporterStep(importer));
+            continue;
+         }
+
+         List<FieldStep.Entry> entries = new ArrayList<>();
+         for(Field field : current.getDeclaredFields()) {
+            GenerateVariable annotation = field.getAnnotation(GenerateVariable.class);
+            if(annotation != null) {
+               entries.add(new FieldStep.Entry(field, annotation));
+            }
+         }
+
+         if(!entries.isEmpty()) {
+            steps.addFirst(new FieldStep(entries.toArray(new FieldStep.Entry[0])));
+         }
+      }
+
+      this.steps = steps.toArray(new Step[0]);
+   }
+
+   static ImportPlan of(Class<?> type) {
+      return PLANS.get(type);
+   }
+
+   Variable<?>[] importAll(Scope scope, Object instance, String namespace) throws ScopeException {
+      if(this.steps.length == 1 && this.steps[0] instanceof ImporterStep) {
+         return ((ImporterStep) this.steps[0]).importer.importAll(scope, instance, namespace);
+      }
+
+      List<Variable<?>> variables = new ArrayList<>();
+      for(Step step : this.steps) {
+         step.importAll(scope, instance, namespace, variables);
+      }
+      return variables.toArray(new Variable<?>[0]);
+   }
+
+   private interface Step {
+      void importAll(Scope scope, Object instance, String namespace, List<Variable<?>> variables)
+         throws ScopeException;
+   }
+
+   private static final class ImporterStep implements Step {
+      private final VariableImporter<Object> importer;
+
+      private ImporterStep(VariableImporter<Object> importer) {
+         this.importer = importer;
+      }
+
+      @Override
+      public void importAll(Scope scope, Object instance, String namespace, List<Variable<?>> variables)
+         throws ScopeException {
+         Collections.addAll(variables, this.importer.importAll(scope, instance, namespace));
+      }
+   }
+
+   private static final class FieldStep implements Step {
+      private final Entry[] entries;
+
+      private FieldStep(Entry[] entries) {
+         this.entries = entries;
+      }
+
+      @Override
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      public void importAll(Scope scope, Object instance, String namespace, List<Variable<?>> variables)
+         throws ScopeException {
+         for(Entry entry : this.entries) {
+            variables.add(scope.add(Scope.qualify(namespace, entry.name), (Class) entry.type, entry.description,
+                  (Delegate) entry.delegates.apply(instance)));
+         }
+      }
+
+      /**
+       * A field's pre-resolved variable definition.
+       */
+      private static final class Entry {
+         private final String name;
+         private final Class<?> type;
+         private final String description;
+         private final Function<Object, ? extends Delegate<?>> delegates;
+
+         @SuppressWarnings("rawtypes")
+         private Entry(Field field, GenerateVariable annotation) {
+            this.name = annotation.value().isEmpty() ? field.getName() : annotation.value();
+            this.type = annotation.type() == Auto.class ? field.getType() : annotation.type();
+            this.description = annotation.description();
+
+            Class<? extends Delegate> delegateClass = annotation.delegate();
+            if(delegateClass == FieldHandleDelegate.class) {
+               this.delegates = FieldHandleDelegate.factory(field);
+               return;
+            }
+
+            Constructor<? extends Delegate> constructor;
+            try {
+               constructor = delegateClass.getConstructor(Object.class, Field.class);
+            } catch(NoSuchMethodException exception) {
+               throw new RuntimeException("Failed to create delegate.", exception);
+            }
+
+            this.delegates = instance -> {
+               try {
+                  return constructor.newInstance(instance, field);
+               } catch(IllegalAccessException | InvocationTargetException | InstantiationException exception) {
+                  throw new RuntimeException("Failed to create delegate.", exception);
+               }
+            };
+         }
+      }
+   }
+}
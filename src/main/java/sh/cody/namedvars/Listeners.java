@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+import sh.cody.namedvars.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A copy-on-write list of {@link VariableListener}s.
+ *
+ * Notifying an empty list only reads a volatile array reference, so variables without listeners don't allocate or
+ * synchronize when they're updated.
+ */
+final class Listeners {
+   private static final Registration[] NONE = new Registration[0];
+
+   private volatile Registration[] registrations = NONE;
+
+   /**
+    * Registers a listener.
+    *
+    * @param listener the listener
+    * @param executor the executor to notify the listener on or {@code null} to notify it on the updating thread
+    * @param coalesce whether notifications for a variable which is still waiting to be delivered are dropped
+    * @return the subscription
+    */
+   Subscription add(VariableListener listener, Executor executor, boolean coalesce) {
+      Registration registration = new Registration(Objects.requireNonNull(listener), executor, coalesce);
+
+      synchronized(this) {
+         Registration[] registrations = Arrays.copyOf(this.registrations, this.registrations.length + 1);
+         registrations[registrations.length - 1] = registration;
+         this.registrations = registrations;
+      }
+
+      return registration;
+   }
+
+   private synchronized void remove(Registration registration) {
+      Registration[] registrations = this.registrations;
+
+      for(int i = 0; i < registrations.length; ++i) {
+         if(registrations[i] == registration) {
+            Registration[] remaining = new Registration[registrations.length - 1];
+            System.arraycopy(registrations, 0, remaining, 0, i);
+            System.arraycopy(registrations, i + 1, remaining, i, remaining.length - i);
+            this.registrations = remaining.length == 0 ? NONE : remaining;
+            return;
+         }
+      }
+   }
+
+   /**
+    * Notifies every registered listener that a variable was updated.
+    *
+    * @param variable the updated variable
+    */
+   void fire(Variable<?> variable) {
+      Registration[] registrations = this.registrations;
+
+      if(registrations.length != 0) {
+         for(Registration registration : registrations) {
+            registration.deliver(variable);
+         }
+      }
+   }
+
+   private final class Registration implements Subscription {
+      private final VariableListener listener;
+      private final Executor executor;
+      private final Set<Variable<?>> pending;
+
+      private Registration(VariableListener listener, Executor executor, boolean coalesce) {
+         this.listener = listener;
+         this.executor = executor;
+         this.pending = coalesce && executor != null ? ConcurrentHashMap.newKeySet() : null;
+      }
+
+      private void deliver(Variable<?> variable) {
+         if(this.executor == null) {
+            this.listener.changed(variable);
+         } else if(this.pending == null) {
+            this.executor.execute(() -> this.listener.changed(variable));
+         } else if(this.pending.add(variable)) {
+            this.executor.execute(() -> {
+               // removed before notifying so an update made while the listener runs is delivered again.
+               this.pending.remove(variable);
+               this.listener.changed(variable);
+            });
+         }
+      }
+
+      @Override
+      public void cancel() {
+         Listeners.this.remove(this);
+      }
+   }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * An index of a scope's variables ordered by name.
+ *
+ * Prefix queries are range queries on a {@link ConcurrentSkipListMap}, so they only visit the matching variables.
+ * Glob patterns are narrowed to the range of their literal prefix before the rest of the pattern is matched.
+ */
+final class NameIndex {
+   private final ConcurrentNavigableMap<String, Variable<?>> variables = new ConcurrentSkipListMap<>();
+
+   void add(Variable<?> variable) {
+      this.variables.put(variable.getName(), variable);
+   }
+
+   Stream<Variable<?>> all() {
+      return this.variables.values().stream();
+   }
+
+   Stream<Variable<?>> byPrefix(String prefix) {
+      return this.range(prefix).values().stream();
+   }
+
+   Stream<Variable<?>> glob(String pattern) {
+      int literal = literalLength(pattern);
+      if(literal == pattern.length()) {
+         Variable<?> variable = this.variables.get(pattern);
+         return variable == null ? Stream.empty() : Stream.of(variable);
+      }
+
+      return this.range(pattern.substring(0, literal)).values().stream()
+            .filter(variable -> matches(pattern, literal, variable.getName(), literal));
+   }
+
+   private NavigableMap<String, Variable<?>> range(String prefix) {
+      // the exclusive upper bound is the smallest string that sorts after every string with the prefix.
+      int end = prefix.length();
+      while(end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+         --end;
+      }
+
+      if(end == 0) {
+         return this.variables.tailMap(prefix, true);
+      }
+
+      String upper = prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+      return this.variables.subMap(prefix, true, upper, false);
+   }
+
+   private static int literalLength(String pattern) {
+      int length = 0;
+      while(length < pattern.length() && pattern.charAt(length) != '*' && pattern.charAt(length) != '?') {
+         ++length;
+      }
+      return length;
+   }
+
+   /**
+    * Matches a glob pattern in which {@code *} matches any sequence of characters and {@code ?} matches any single
+    * character. A mismatch after a {@code *} only backtracks to the most recent {@code *}, so matching is linear in
+    * practice and never recursive.
+    */
+   static boolean matches(String pattern, int p, String name, int n) {
+      int star = -1, resume = 0;
+
+      while(n < name.length()) {
+         if(p < pattern.length() && pattern.charAt(p) == '*') {
+            star = p++;
+            resume = n;
+         } else if(p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == name.charAt(n))) {
+            ++p;
+            ++n;
+         } else if(star >= 0) {
+            p = star + 1;
+            n = ++resume;
+         } else {
+            return false;
+         }
+      }
+
+      while(p < pattern.length() && pattern.charAt(p) == '*') {
+         ++p;
+      }
+
+      return p == pattern.length();
+   }
+}
@@ -26,14 +26,49 @@ import sh.cody.namedvars.annotation.*;
 import sh.cody.namedvars.exception.*;
 import sh.cody.namedvars.parse.*;
 import sh.cody.namedvars.delegate.*;
+import sh.cody.namedvars.event.*;
+import sh.cody.namedvars.format.FormatterProvider;
+import sh.cody.namedvars.format.SimpleFormatterProvider;
+import sh.cody.namedvars.metrics.*;
 import java.lang.reflect.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.*;
 import java.util.stream.*;
 
+/**
+ * A set of uniquely named variables.
+ *
+ * A {@link Scope} may be shared between threads: lookups are lock-free, a variable is added atomically (so exactly one
+ * of several concurrent definitions of the same name succeeds) and {@link Scope#stream()} and
+ * {@link Scope#iterator()} are weakly consistent, i.e. they never throw {@link ConcurrentModificationException} and
+ * may or may not reflect variables added while iterating.
+ *
+ * Scopes can be nested with {@link Scope#createChild()}: a child's lookups by name fall back to its parent, and
+ * variables it inherits are cached so that a lookup costs a single map access regardless of the hierarchy's depth. The
+ * cache is invalidated whenever a variable is added anywhere in the hierarchy, since that variable may shadow a cached
+ * one. Iteration and {@link Scope#size()} only cover a scope's own variables.
+ *
+ * Besides the name lookup, variables are kept in a dense table in the order they were added. A {@link VariableKey}
+ * obtained once with {@link Scope#key(String, Class)} indexes into that table directly. A second index orders the
+ * variables by name for {@link Scope#sorted()}, {@link Scope#byPrefix(String)} and {@link Scope#glob(String)}, which
+ * only visit the variables they return.
+ */
 public final class Scope implements Iterable<Variable<?>> {
    private final Map<String, Variable<?>> variableMap;
    private final ParserProvider parserProvider;
+   private final FormatterProvider formatterProvider;
+   private volatile Variable<?>[] variableTable = new Variable<?>[16];
+   private volatile int size;
+   private final NameIndex nameIndex = new NameIndex();
+   private final Scope parent;
+   private final AtomicLong hierarchyVersion;
+   private volatile InheritedCache inheritedCache;
+   private volatile ScopeMetrics metrics;
+   final Object commitLock;
+   final Listeners listeners = new Listeners();
 
    /**
     * Constructs a new {@link Scope} with a {@link SimpleParserProvider}.
@@ -43,13 +78,51 @@ public final class Scope implements Iterable<Variable<?>> {
    }
 
    /**
-    * Constructs a new {@link Scope} with the specified {@link ParserProvider}.
+    * Constructs a new {@link Scope} with the specified {@link ParserProvider} and a {@link SimpleFormatterProvider}.
     *
     * @param parserProvider a parser provider
     */
    public Scope(ParserProvider parserProvider) {
-      this.variableMap = new HashMap<>();
+      this(parserProvider, new SimpleFormatterProvider());
+   }
+
+   /**
+    * Constructs a new {@link Scope} with the specified {@link ParserProvider} and {@link FormatterProvider}.
+    *
+    * @param parserProvider a parser provider
+    * @param formatterProvider a formatter provider
+    */
+   public Scope(ParserProvider parserProvider, FormatterProvider formatterProvider) {
+      this(parserProvider, formatterProvider, null);
+   }
+
+   private Scope(ParserProvider parserProvider, FormatterProvider formatterProvider, Scope parent) {
+      this.variableMap = new ConcurrentHashMap<>();
       this.parserProvider = parserProvider;
+      this.formatterProvider = Objects.requireNonNull(formatterProvider);
+      this.parent = parent;
+      this.hierarchyVersion = parent == null ? new AtomicLong() : parent.hierarchyVersion;
+      this.inheritedCache = new InheritedCache(this.hierarchyVersion.get());
+      this.commitLock = parent == null ? new Object() : parent.commitLock;
+   }
+
+   /**
+    * Creates a new, empty {@link Scope} whose lookups by name fall back to this scope. The child uses this scope's
+    * {@link ParserProvider} and {@link FormatterProvider}.
+    *
+    * @return the child scope
+    */
+   public Scope createChild() {
+      return new Scope(this.parserProvider, this.formatterProvider, this);
+   }
+
+   /**
+    * Returns the scope this scope falls back to.
+    *
+    * @return the parent scope or {@code null} if this is a root scope
+    */
+   public Scope getParent() {
+      return this.parent;
    }
 
    /**
@@ -61,27 +134,55 @@ public final class Scope implements Iterable<Variable<?>> {
     * @throws ScopeException the scope already contains a variable with this name
     */
    private <T> Variable<T> add(Variable<T> variable) throws ScopeException {
-      if(this.variableMap.containsKey(variable.getName())) {
-         throw new ScopeException("A variable with this name is already defined in this scope.");
-      } else {
+      // only definitions are serialized, lookups remain lock-free.
+      synchronized(this.variableMap) {
+         if(this.variableMap.containsKey(variable.getName())) {
+            throw new ScopeException("A variable with this name is already defined in this scope.");
+         }
+
+         int index = this.size;
+         Variable<?>[] table = this.variableTable;
+         if(index == table.length) {
+            table = Arrays.copyOf(table, index * 2);
+         }
+
+         variable.index = index;
+         table[index] = variable;
+         this.variableTable = table;
+         this.size = index + 1;
          this.variableMap.put(variable.getName(), variable);
+         this.nameIndex.add(variable);
+         this.hierarchyVersion.incrementAndGet();
       }
 
       return variable;
    }
 
    /**
-    * Adds a variable to the scope.
+    * Adds a variable to the scope using a custom delegate.
     *
     * @param name the variable's name
     * @param type the variable's type
+    * @param description the variable's description
     * @param delegate the variable's delegate
     * @param <T> the variable's type
     * @return the variable that was added
     * @throws ScopeException the scope already contains a variable with this name
     */
-   private <T> Variable<T> add(String name, Class<T> type, String description, Delegate<T> delegate) throws ScopeException {
-      return this.add(new Variable<>(name, type, this, this.parserProvider.match(type), delegate, description));
+   public <T> Variable<T> add(String name, Class<T> type, String description, Delegate<T> delegate) throws ScopeException {
+      Parser<T> parser = this.parserProvider.match(type);
+      ScopeMetrics metrics = this.metrics;
+
+      if(metrics == null) {
+         return this.add(new Variable<>(name, type, this, parser, this.formatterProvider.match(type), delegate,
+               description));
+      }
+
+      VariableMetrics variableMetrics = new VariableMetrics(name);
+      Variable<T> variable = this.add(new Variable<>(name, type, this, MeteredParser.wrap(parser, variableMetrics),
+            this.formatterProvider.match(type), MeteredDelegate.wrap(delegate, variableMetrics), description));
+      metrics.register(variableMetrics);
+      return variable;
    }
 
    /**
@@ -117,6 +218,44 @@ public final class Scope implements Iterable<Variable<?>> {
       return this.add(name, type, description, Delegate.fromGetterAndSetter(getter, setter));
    }
 
+   /**
+    * Adds a variable to the scope using a functional getter and an expensive setter, whose writes are coalesced by a
+    * {@link WriteBehindDelegate} that flushes on a shared daemon thread.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param getter the variable's getter
+    * @param setter the variable's setter
+    * @param interval the longest time a written value is held before it's passed to the setter
+    * @param <T> the variable's type
+    * @return the variable that was added
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> addWriteBehind(String name, Class<T> type, Supplier<T> getter, Consumer<T> setter,
+                                         Duration interval) throws ScopeException {
+      return this.addWriteBehind(name, type, null, getter, setter, interval);
+   }
+
+   /**
+    * Adds a variable to the scope using a functional getter and an expensive setter, whose writes are coalesced by a
+    * {@link WriteBehindDelegate} that flushes on a shared daemon thread.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param description the variable's description
+    * @param getter the variable's getter
+    * @param setter the variable's setter
+    * @param interval the longest time a written value is held before it's passed to the setter
+    * @param <T> the variable's type
+    * @return the variable that was added
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> addWriteBehind(String name, Class<T> type, String description, Supplier<T> getter,
+                                         Consumer<T> setter, Duration interval) throws ScopeException {
+      return this.add(name, type, description,
+            new WriteBehindDelegate<>(Delegate.fromGetterAndSetter(getter, setter), interval));
+   }
+
    /**
     * Creates a new variable in the scope.
     *
@@ -147,15 +286,186 @@ public final class Scope implements Iterable<Variable<?>> {
    /**
     * Creates a new variable in the scope.
     *
+    * Variables of type {@code int}, {@code long}, {@code double} and {@code boolean} store their value unboxed, see
+    * {@link Delegate#ofStoredValue(Class, Object)}.
+    *
     * @param name the variable's name
     * @param type the variable's type
+    * @param description the variable's description
     * @param value the variable's value
     * @param <T> the variable's type
     * @return the variable that was created
     * @throws ScopeException the scope already contains a variable with this name
     */
    public <T> Variable<T> create(String name, Class<T> type, String description, T value) throws ScopeException {
-      return this.add(name, type, description, new StoredValueDelegate<>(value));
+      return this.add(name, type, description, Delegate.ofStoredValue(type, value));
+   }
+
+   /**
+    * Creates a new variable in the scope whose value is visible to every thread and can be updated atomically with
+    * {@link Variable#compareAndSet(Object, Object)}, {@link Variable#getAndUpdate(UnaryOperator)} and
+    * {@link Variable#accumulate(Object, BinaryOperator)}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param value the variable's value
+    * @param order the memory ordering of the variable's writes
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createAtomic(String name, Class<T> type, T value, MemoryOrder order) throws ScopeException {
+      return this.createAtomic(name, type, null, value, order);
+   }
+
+   /**
+    * Creates a new variable in the scope whose value is visible to every thread and can be updated atomically.
+    *
+    * Variables of type {@code int}, {@code long}, {@code double} and {@code boolean} store their value unboxed, see
+    * {@link Delegate#ofAtomicValue(Class, Object, MemoryOrder)}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param description the variable's description
+    * @param value the variable's value
+    * @param order the memory ordering of the variable's writes
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createAtomic(String name, Class<T> type, String description, T value, MemoryOrder order)
+      throws ScopeException {
+      return this.add(name, type, description, Delegate.ofAtomicValue(type, value, Objects.requireNonNull(order)));
+   }
+
+   /**
+    * Creates a new variable in the scope whose initial value is computed on first access, see {@link LazyDelegate}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param supplier the supplier of the initial value
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createLazy(String name, Class<T> type, Supplier<? extends T> supplier)
+         throws ScopeException {
+      return this.createLazy(name, type, null, supplier);
+   }
+
+   /**
+    * Creates a new variable in the scope whose initial value is computed on first access, see {@link LazyDelegate}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param description the variable's description
+    * @param supplier the supplier of the initial value
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createLazy(String name, Class<T> type, String description, Supplier<? extends T> supplier)
+         throws ScopeException {
+      return this.add(name, type, description, new LazyDelegate<>(supplier));
+   }
+
+   /**
+    * Adds a variable to the scope using a functional getter and setter, whose getter is only called when the value
+    * isn't cached, see {@link MemoizedDelegate}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param getter the variable's getter
+    * @param setter the variable's setter, or {@code null} if the variable is read-only
+    * @param expiry how long a value is cached, or {@code null} if it's cached until {@link Variable#invalidate()}
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createMemoized(String name, Class<T> type, Supplier<? extends T> getter,
+                                         Consumer<? super T> setter, Duration expiry) throws ScopeException {
+      return this.createMemoized(name, type, null, getter, setter, expiry);
+   }
+
+   /**
+    * Adds a variable to the scope using a functional getter and setter, whose getter is only called when the value
+    * isn't cached, see {@link MemoizedDelegate}.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param description the variable's description
+    * @param getter the variable's getter
+    * @param setter the variable's setter, or {@code null} if the variable is read-only
+    * @param expiry how long a value is cached, or {@code null} if it's cached until {@link Variable#invalidate()}
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> createMemoized(String name, Class<T> type, String description, Supplier<? extends T> getter,
+                                         Consumer<? super T> setter, Duration expiry) throws ScopeException {
+      return this.add(name, type, description, new MemoizedDelegate<>(getter, setter, expiry));
+   }
+
+   /**
+    * Creates a new read-only variable in the scope whose value is computed from other variables of the scope.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param function computes the variable's value from its inputs
+    * @param inputs the variables the function reads
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name, or an input belongs to another scope
+    * @see Scope#createDerived(String, Class, String, Supplier, Variable[])
+    */
+   public <T> Variable<T> createDerived(String name, Class<T> type, Supplier<? extends T> function,
+                                        Variable<?>... inputs) throws ScopeException {
+      return this.createDerived(name, type, null, function, inputs);
+   }
+
+   /**
+    * Creates a new read-only variable in the scope whose value is computed from other variables of the scope, e.g.
+    * {@code scope.createDerived("pool.max", int.class, () -> cores.getInt() * perCore.getInt(), cores, perCore)}.
+    *
+    * The value is computed immediately and then recomputed whenever an input changes through its {@link Variable},
+    * including inputs which are derived themselves. Only the variables that depend on a changed variable are
+    * recomputed, in dependency order, and a {@link Batch} recomputes each of them at most once. A recomputed variable
+    * notifies its listeners if its value changed. The function must only read the given inputs and shouldn't throw,
+    * since it's called by whichever thread updates an input.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param description the variable's description
+    * @param function computes the variable's value from its inputs
+    * @param inputs the variables the function reads
+    * @param <T> the variable's type
+    * @return the variable that was created
+    * @throws ScopeException the scope already contains a variable with this name, or an input belongs to another scope
+    */
+   public <T> Variable<T> createDerived(String name, Class<T> type, String description, Supplier<? extends T> function,
+                                        Variable<?>... inputs) throws ScopeException {
+      for(Variable<?> input : inputs) {
+         if(input.getScope() != this) {
+            throw new ScopeException("The input '" + input.getName() + "' of '" + name
+                  + "' doesn't belong to this scope.");
+         }
+      }
+
+      // the graph is only changed while no propagation is running, so none misses the new variable.
+      synchronized(this.commitLock) {
+         DerivedDelegate<T> delegate = new DerivedDelegate<>(function);
+         Variable<T> variable = this.add(name, type, description, delegate);
+         Derivation derivation = new Derivation(variable, delegate, inputs);
+         variable.derivation = derivation;
+
+         for(Variable<?> input : new LinkedHashSet<>(Arrays.asList(inputs))) {
+            Derivation[] dependents = Arrays.copyOf(input.dependents, input.dependents.length + 1);
+            dependents[dependents.length - 1] = derivation;
+            input.dependents = dependents;
+         }
+
+         return variable;
+      }
    }
 
    /**
@@ -168,25 +478,112 @@ public final class Scope implements Iterable<Variable<?>> {
     * @throws ScopeException the scope already contains a variable with this name
     */
    public <T> Variable<T> importField(Object instance, Field field) throws ScopeException {
+      return this.importField(instance, field, "");
+   }
+
+   /**
+    * Imports a field annotated with {@link GenerateVariable} into the scope as a variable within a namespace.
+    *
+    * @param instance the field's parent instance
+    * @param field the field
+    * @param namespace the namespace, e.g. {@code "net.pool"}, which is prepended to the variable's name followed by a
+    *                  dot; an empty namespace leaves the name unchanged
+    * @param <T> the variable's type
+    * @return the variable that was imported
+    * @throws ScopeException the scope already contains a variable with this name
+    */
+   public <T> Variable<T> importField(Object instance, Field field, String namespace) throws ScopeException {
       GenerateVariableResolver resolver = new GenerateVariableResolver(instance, field);
-      return this.add(resolver.getName(), resolver.getType(), resolver.getDescription(), resolver.getDelegate());
+      return this.add(qualify(namespace, resolver.getName()), resolver.getType(), resolver.getDescription(),
+            resolver.getDelegate());
    }
 
    /**
-    * Imports all fields annotated with {@link GenerateVariable} within an instance into the scope as variables.
+    * Imports all fields annotated with {@link GenerateVariable} within an instance into the scope as variables,
+    * including the fields declared by its superclasses, whose variables are imported first.
+    *
+    * The fields of each class are resolved once and cached for the lifetime of the class. If a class has a
+    * {@link VariableImporter} generated by the {@code named-variables-processor} annotation processor, it's used for
+    * the fields the class declares instead of reflection.
     *
     * @param instance an instance
     * @return an array containing all variables that were imported
     * @throws ScopeException one or more of the field's variable names already exist within the scope
     */
    public Variable<?>[] importAll(Object instance) throws ScopeException {
-      List<Variable<?>> variables = new ArrayList<>();
-      for(Field field : instance.getClass().getDeclaredFields()) {
-         try {
-            variables.add(this.importField(instance, field));
-         } catch(NullPointerException ignored) {}
+      return this.importAll(instance, "");
+   }
+
+   /**
+    * Imports all fields annotated with {@link GenerateVariable} within an instance into the scope as variables within
+    * a namespace, see {@link Scope#importField(Object, Field, String)}.
+    *
+    * @param instance an instance
+    * @param namespace the namespace, e.g. {@code "net.pool"}; an empty namespace leaves the names unchanged
+    * @return an array containing all variables that were imported
+    * @throws ScopeException one or more of the field's variable names already exist within the scope
+    */
+   public Variable<?>[] importAll(Object instance, String namespace) throws ScopeException {
+      return ImportPlan.of(instance.getClass()).importAll(this, instance, namespace);
+   }
+
+   static String qualify(String namespace, String name) {
+      return namespace.isEmpty() ? name : namespace + "." + name;
+   }
+
+   /**
+    * Registers a listener which is notified on the updating thread whenever any variable in the scope is updated
+    * through its {@link Variable}. Exceptions thrown by the listener propagate to the updating caller.
+    *
+    * @param listener the listener
+    * @return the listener's subscription
+    */
+   public Subscription addListener(VariableListener listener) {
+      return this.listeners.add(listener, null, false);
+   }
+
+   /**
+    * Registers a listener which is notified on an executor whenever any variable in the scope is updated through its
+    * {@link Variable}.
+    *
+    * @param listener the listener
+    * @param executor the executor the listener is notified on
+    * @param coalesce if {@code true}, updates made to a variable while a notification for it is still waiting to be
+    *                 delivered don't cause additional notifications
+    * @return the listener's subscription
+    */
+   public Subscription addListener(VariableListener listener, Executor executor, boolean coalesce) {
+      return this.listeners.add(listener, Objects.requireNonNull(executor), coalesce);
+   }
+
+   /**
+    * Passes every value held by the {@link BufferedDelegate}s of this scope's variables on to their storage locations,
+    * see {@link Variable#flush()}. Variables of child scopes aren't flushed.
+    */
+   public void flush() {
+      for(Variable<?> variable : this) {
+         variable.flush();
       }
-      return variables.toArray(new Variable<?>[0]);
+   }
+
+   /**
+    * Creates a new, empty {@link Batch} of updates to the variables of this scope.
+    *
+    * @return a new batch
+    */
+   public Batch batch() {
+      return new Batch(this);
+   }
+
+   /**
+    * Parses a value for each entry of a map and, only if every value could be parsed, updates the variables named by
+    * the keys, see {@link Batch}.
+    *
+    * @param values unparsed value strings by variable name
+    * @throws ScopeException a variable doesn't exist or a value couldn't be parsed, no variable has been changed
+    */
+   public void applyAll(Map<String, String> values) throws ScopeException {
+      this.batch().parseAll(values).apply();
    }
 
    /**
@@ -198,25 +595,169 @@ public final class Scope implements Iterable<Variable<?>> {
     */
    @SuppressWarnings("unchecked")
    public <T> Variable<T> get(String name) {
-      return (Variable<T>) this.variableMap.get(name);
+      Variable<?> variable = this.variableMap.get(name);
+      if(variable != null || this.parent == null) {
+         return (Variable<T>) variable;
+      }
+
+      InheritedCache cache = this.inheritedCache;
+      long version = this.hierarchyVersion.get();
+      if(cache.version != version) {
+         // a cache that's concurrently filled with outdated lookups is simply abandoned.
+         this.inheritedCache = cache = new InheritedCache(version);
+      }
+
+      variable = cache.variables.get(name);
+      if(variable == null) {
+         variable = this.parent.get(name);
+         if(variable != null) {
+            cache.variables.put(name, variable);
+         }
+      }
+
+      return (Variable<T>) variable;
+   }
+
+   /**
+    * Returns a key which resolves a variable by its index rather than by its name, see
+    * {@link Scope#get(VariableKey)}. Variables inherited from a parent scope are keyed within their own scope.
+    *
+    * @param name the variable's name
+    * @param type the variable's type
+    * @param <T> the variable's type
+    * @return the variable's key
+    * @throws ScopeException the scope doesn't contain a variable with this name and type
+    */
+   public <T> VariableKey<T> key(String name, Class<T> type) throws ScopeException {
+      Variable<?> variable = this.get(name);
+
+      if(variable == null) {
+         throw new ScopeException("No variable named '" + name + "' exists in this scope.");
+      } else if(variable.getType() != type) {
+         throw new ScopeException("The variable named '" + name + "' is of type " + variable.getType().getName()
+               + ", not " + type.getName() + ".");
+      }
+
+      return new VariableKey<>(variable.getScope(), name, type, variable.index);
+   }
+
+   /**
+    * Retrieves a variable from the scope by its key, which is a single array access.
+    *
+    * @param key the variable's key
+    * @param <T> the variable's type
+    * @return the variable
+    * @throws IllegalArgumentException the key belongs to a scope that is neither this scope nor one of its ancestors
+    */
+   @SuppressWarnings("unchecked")
+   public <T> Variable<T> get(VariableKey<T> key) {
+      Scope scope = this;
+      while(key.getScope() != scope) {
+         if((scope = scope.parent) == null) {
+            throw new IllegalArgumentException("The key belongs to a scope outside of this scope's hierarchy.");
+         }
+      }
+
+      return (Variable<T>) scope.variableTable[key.index];
+   }
+
+   /**
+    * Enables metrics for the variables added to the scope from now on: their delegates and parsers are wrapped by a
+    * {@link MeteredDelegate} and a {@link MeteredParser}, which count reads, writes, parses and parse failures and
+    * record parse latencies. Variables added before, and variables of scopes without metrics, aren't wrapped and don't
+    * have any overhead.
+    *
+    * @return the scope's metrics
+    */
+   public ScopeMetrics enableMetrics() {
+      synchronized(this.variableMap) {
+         if(this.metrics == null) {
+            this.metrics = new ScopeMetrics();
+         }
+
+         return this.metrics;
+      }
    }
 
    /**
-    * Returns a stream containing all variables in the scope.
+    * Returns the scope's metrics.
+    *
+    * @return the scope's metrics or {@code null} if they aren't enabled, see {@link Scope#enableMetrics()}
+    */
+   public ScopeMetrics getMetrics() {
+      return this.metrics;
+   }
+
+   /**
+    * Returns the number of variables in the scope.
+    *
+    * @return the number of variables in the scope
+    */
+   public int size() {
+      return this.size;
+   }
+
+   /**
+    * Returns a stream containing all variables in the scope, in the order they were added.
     *
     * @return a stream containing all the variables in the scope
     */
    public Stream<Variable<?>> stream() {
-      return this.variableMap.values().stream();
+      // the size is read first: a table that has been replaced since still holds as many variables.
+      int size = this.size;
+      return Arrays.stream(this.variableTable, 0, size);
+   }
+
+   /**
+    * Returns a stream containing all variables in the scope, ordered by name.
+    *
+    * @return a stream containing all the variables in the scope
+    */
+   public Stream<Variable<?>> sorted() {
+      return this.nameIndex.all();
    }
 
    /**
-    * Returns an iterator to iterate over every variable in the scope.
+    * Returns a stream containing the variables in the scope whose names start with a prefix, ordered by name.
+    *
+    * @param prefix the prefix, e.g. {@code "net."}
+    * @return a stream containing the matching variables
+    */
+   public Stream<Variable<?>> byPrefix(String prefix) {
+      return this.nameIndex.byPrefix(Objects.requireNonNull(prefix));
+   }
+
+   /**
+    * Returns a stream containing the variables in the scope whose names match a glob pattern, ordered by name. Within
+    * the pattern, {@code *} matches any sequence of characters (including dots) and {@code ?} matches any single
+    * character; every other character matches itself.
+    *
+    * @param pattern the pattern, e.g. {@code "net.*.timeout"}
+    * @return a stream containing the matching variables
+    */
+   public Stream<Variable<?>> glob(String pattern) {
+      return this.nameIndex.glob(Objects.requireNonNull(pattern));
+   }
+
+   /**
+    * Returns an iterator to iterate over every variable in the scope, in the order they were added.
     *
     * @return an iterator to iterate over every variable in the scope
     */
    @Override
    public Iterator<Variable<?>> iterator() {
-      return this.variableMap.values().iterator();
+      return this.stream().iterator();
+   }
+
+   /**
+    * Variables inherited from the parent scopes which were looked up while the hierarchy had a particular version.
+    */
+   private static final class InheritedCache {
+      private final long version;
+      private final Map<String, Variable<?>> variables = new ConcurrentHashMap<>();
+
+      private InheritedCache(long version) {
+         this.version = version;
+      }
    }
 }
@@ -22,24 +22,41 @@
 
 package sh.cody.namedvars;
 
-import sh.cody.namedvars.parse.Parser;
-import sh.cody.namedvars.delegate.Delegate;
+import sh.cody.namedvars.parse.*;
+import sh.cody.namedvars.delegate.*;
+import sh.cody.namedvars.event.*;
+import sh.cody.namedvars.format.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.*;
 
 public final class Variable<T> {
    private final String name;
    private final Class<T> type;
    private final Scope scope;
    private final Parser<T> parser;
+   private final Formatter<T> formatter;
+   private final boolean immutableValue;
+   private volatile Formatted formatted;
    private final Delegate<T> delegate;
    private final String description;
+   private final Listeners listeners = new Listeners();
+   int index = -1;
+   Derivation derivation;
+   volatile Derivation[] dependents = Derivation.NONE;
 
-   Variable(String name, Class<T> type, Scope scope, Parser<T> parser, Delegate<T> delegate, String description) {
+   Variable(String name, Class<T> type, Scope scope, Parser<T> parser, Formatter<T> formatter, Delegate<T> delegate,
+            String description) {
       this.name = Objects.requireNonNull(name);
       this.type = Objects.requireNonNull(type);
       this.scope = Objects.requireNonNull(scope);
       this.parser = parser;
+      this.formatter = formatter != null ? formatter : (value, out) -> out.append(value);
+      this.immutableValue = isImmutable(type);
       this.delegate = Objects.requireNonNull(delegate);
       this.description = Optional.ofNullable(description).orElse("");
    }
@@ -60,6 +77,548 @@ public final class Variable<T> {
     */
    public void set(T value) {
       this.delegate.set(value);
+      this.changed();
+   }
+
+   /**
+    * Returns the variable's value as {@code int}, without boxing it if the variable's delegate is a
+    * {@link IntDelegate}.
+    *
+    * @return the variable's value
+    */
+   public int getInt() {
+      if(this.delegate instanceof IntDelegate) {
+         return ((IntDelegate) this.delegate).getInt();
+      }
+
+      return ((Number) this.get()).intValue();
+   }
+
+   /**
+    * Updates the variable's value from {@code int}, without boxing it if the variable's delegate is a
+    * {@link IntDelegate}.
+    *
+    * @param value the new value
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   public void setInt(int value) {
+      if(this.delegate instanceof IntDelegate) {
+         ((IntDelegate) this.delegate).setInt(value);
+      } else {
+         this.setBoxed(value);
+      }
+
+      this.changed();
+   }
+
+   /**
+    * Returns the variable's value as {@code long}, without boxing it if the variable's delegate is a
+    * {@link LongDelegate}.
+    *
+    * @return the variable's value
+    */
+   public long getLong() {
+      if(this.delegate instanceof LongDelegate) {
+         return ((LongDelegate) this.delegate).getLong();
+      }
+
+      return ((Number) this.get()).longValue();
+   }
+
+   /**
+    * Updates the variable's value from {@code long}, without boxing it if the variable's delegate is a
+    * {@link LongDelegate}.
+    *
+    * @param value the new value
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   public void setLong(long value) {
+      if(this.delegate instanceof LongDelegate) {
+         ((LongDelegate) this.delegate).setLong(value);
+      } else {
+         this.setBoxed(value);
+      }
+
+      this.changed();
+   }
+
+   /**
+    * Returns the variable's value as {@code double}, without boxing it if the variable's delegate is a
+    * {@link DoubleDelegate}.
+    *
+    * @return the variable's value
+    */
+   public double getDouble() {
+      if(this.delegate instanceof DoubleDelegate) {
+         return ((DoubleDelegate) this.delegate).getDouble();
+      }
+
+      return ((Number) this.get()).doubleValue();
+   }
+
+   /**
+    * Updates the variable's value from {@code double}, without boxing it if the variable's delegate is a
+    * {@link DoubleDelegate}.
+    *
+    * @param value the new value
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   public void setDouble(double value) {
+      if(this.delegate instanceof DoubleDelegate) {
+         ((DoubleDelegate) this.delegate).setDouble(value);
+      } else {
+         this.setBoxed(value);
+      }
+
+      this.changed();
+   }
+
+   /**
+    * Returns the variable's value as {@code boolean}, without boxing it if the variable's delegate is a
+    * {@link BooleanDelegate}.
+    *
+    * @return the variable's value
+    */
+   public boolean getBoolean() {
+      if(this.delegate instanceof BooleanDelegate) {
+         return ((BooleanDelegate) this.delegate).getBoolean();
+      }
+
+      return (Boolean) this.get();
+   }
+
+   /**
+    * Updates the variable's value from {@code boolean}, without boxing it if the variable's delegate is a
+    * {@link BooleanDelegate}.
+    *
+    * @param value the new value
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   public void setBoolean(boolean value) {
+      if(this.delegate instanceof BooleanDelegate) {
+         ((BooleanDelegate) this.delegate).setBoolean(value);
+      } else {
+         this.setBoxed(value);
+      }
+
+      this.changed();
+   }
+
+   @SuppressWarnings("unchecked")
+   private void setBoxed(Object value) {
+      this.delegate.set((T) this.box(value));
+   }
+
+   /**
+    * Converts a boxed primitive to the variable's type, so that e.g. {@link Variable#setInt(int)} stores a
+    * {@link Long} in a {@code long} variable. Numbers are converted between the numeric types only if their value is
+    * preserved exactly.
+    *
+    * @param value a boxed primitive
+    * @return the value as an instance of the variable's type
+    * @throws RuntimeException the variable's type can't hold the value
+    */
+   private Object box(Object value) {
+      Class<?> type = wrapperOf(this.type);
+      if(type.isInstance(value)) {
+         return value;
+      }
+
+      if(value instanceof Number) {
+         Number number = (Number) value;
+         Number converted = convert(number, type);
+
+         if(converted != null && isExact(number, converted)) {
+            return converted;
+         }
+      }
+
+      throw new RuntimeException("The " + this.type.getName() + " variable '" + this.name + "' can't hold the "
+            + value.getClass().getSimpleName() + " value " + value + ".");
+   }
+
+   private static Number convert(Number number, Class<?> type) {
+      if(type == Integer.class) {
+         return number.intValue();
+      } else if(type == Long.class) {
+         return number.longValue();
+      } else if(type == Double.class) {
+         return number.doubleValue();
+      } else if(type == Float.class) {
+         return number.floatValue();
+      } else if(type == Short.class) {
+         return number.shortValue();
+      } else if(type == Byte.class) {
+         return number.byteValue();
+      } else {
+         return null;
+      }
+   }
+
+   private static boolean isExact(Number number, Number converted) {
+      boolean fromFloating = number instanceof Double || number instanceof Float;
+      boolean toFloating = converted instanceof Double || converted instanceof Float;
+
+      if(fromFloating) {
+         return toFloating
+               ? Double.compare(number.doubleValue(), converted.doubleValue()) == 0
+               : converted.longValue() == number.doubleValue() && number.doubleValue() != 0x1p63;
+      }
+
+      // 2^63 is clamped to Long.MAX_VALUE when cast, which compares equal to it as a double.
+      return toFloating
+            ? (long) converted.doubleValue() == number.longValue() && converted.doubleValue() != 0x1p63
+            : converted.longValue() == number.longValue();
+   }
+
+   private static Class<?> wrapperOf(Class<?> type) {
+      if(!type.isPrimitive()) {
+         return type;
+      } else if(type == int.class) {
+         return Integer.class;
+      } else if(type == long.class) {
+         return Long.class;
+      } else if(type == double.class) {
+         return Double.class;
+      } else if(type == boolean.class) {
+         return Boolean.class;
+      } else if(type == float.class) {
+         return Float.class;
+      } else if(type == short.class) {
+         return Short.class;
+      } else if(type == byte.class) {
+         return Byte.class;
+      } else {
+         return Character.class;
+      }
+   }
+
+   /**
+    * Atomically updates the variable's value if it {@link Object#equals(Object) equals} the expected value.
+    * Listeners are only notified if the value was updated.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was updated
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    */
+   public boolean compareAndSet(T expected, T value) {
+      if(this.atomic().compareAndSet(expected, value)) {
+         this.changed();
+         return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * Atomically replaces the variable's value with the result of a function, which may be applied more than once if
+    * the value is updated concurrently. Listeners are only notified if the new value doesn't
+    * {@link Object#equals(Object) equal} the previous one.
+    *
+    * @param function a side-effect-free function
+    * @return the previous value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    */
+   public T getAndUpdate(UnaryOperator<T> function) {
+      T previous = this.atomic().getAndUpdate(function);
+
+      if(!Objects.equals(previous, function.apply(previous))) {
+         this.changed();
+      }
+      return previous;
+   }
+
+   /**
+    * Atomically replaces the variable's value with the result of a function applied to the current value and another
+    * value, e.g. {@code counter.accumulate(1L, Long::sum)}. The function may be applied more than once if the value
+    * is updated concurrently. Listeners are only notified if the new value doesn't {@link Object#equals(Object) equal}
+    * the previous one.
+    *
+    * @param x the other value
+    * @param function a side-effect-free function
+    * @return the new value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    */
+   public T accumulate(T x, BinaryOperator<T> function) {
+      T previous = this.atomic().getAndUpdate(current -> function.apply(current, x));
+      T next = function.apply(previous, x);
+
+      if(!Objects.equals(previous, next)) {
+         this.changed();
+      }
+      return next;
+   }
+
+   /**
+    * Same as {@link Variable#compareAndSet(Object, Object)}, without boxing if the variable's delegate is an
+    * {@link AtomicIntDelegate}.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was updated
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public boolean compareAndSetInt(int expected, int value) {
+      boolean updated = this.delegate instanceof AtomicIntDelegate
+            ? ((AtomicIntDelegate) this.delegate).compareAndSetInt(expected, value)
+            : ((AtomicDelegate<Object>) this.atomic()).compareAndSet(this.box(expected), this.box(value));
+
+      if(updated) {
+         this.changed();
+      }
+      return updated;
+   }
+
+   /**
+    * Same as {@link Variable#getAndUpdate(UnaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicIntDelegate}.
+    *
+    * @param function a side-effect-free function
+    * @return the previous value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public int getAndUpdateInt(IntUnaryOperator function) {
+      int previous = this.delegate instanceof AtomicIntDelegate
+            ? ((AtomicIntDelegate) this.delegate).getAndUpdateInt(function)
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsInt(((Number) current).intValue())))).intValue();
+
+      if(previous != function.applyAsInt(previous)) {
+         this.changed();
+      }
+      return previous;
+   }
+
+   /**
+    * Same as {@link Variable#accumulate(Object, BinaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicIntDelegate}.
+    *
+    * @param x the other value
+    * @param function a side-effect-free function
+    * @return the new value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public int accumulateInt(int x, IntBinaryOperator function) {
+      int previous = this.delegate instanceof AtomicIntDelegate
+            ? ((AtomicIntDelegate) this.delegate).getAndUpdateInt(current -> function.applyAsInt(current, x))
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsInt(((Number) current).intValue(), x)))).intValue();
+      int next = function.applyAsInt(previous, x);
+
+      if(previous != next) {
+         this.changed();
+      }
+      return next;
+   }
+
+   /**
+    * Same as {@link Variable#compareAndSet(Object, Object)}, without boxing if the variable's delegate is an
+    * {@link AtomicLongDelegate}.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was updated
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public boolean compareAndSetLong(long expected, long value) {
+      boolean updated = this.delegate instanceof AtomicLongDelegate
+            ? ((AtomicLongDelegate) this.delegate).compareAndSetLong(expected, value)
+            : ((AtomicDelegate<Object>) this.atomic()).compareAndSet(this.box(expected), this.box(value));
+
+      if(updated) {
+         this.changed();
+      }
+      return updated;
+   }
+
+   /**
+    * Same as {@link Variable#getAndUpdate(UnaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicLongDelegate}.
+    *
+    * @param function a side-effect-free function
+    * @return the previous value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public long getAndUpdateLong(LongUnaryOperator function) {
+      long previous = this.delegate instanceof AtomicLongDelegate
+            ? ((AtomicLongDelegate) this.delegate).getAndUpdateLong(function)
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsLong(((Number) current).longValue())))).longValue();
+
+      if(previous != function.applyAsLong(previous)) {
+         this.changed();
+      }
+      return previous;
+   }
+
+   /**
+    * Same as {@link Variable#accumulate(Object, BinaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicLongDelegate}.
+    *
+    * @param x the other value
+    * @param function a side-effect-free function
+    * @return the new value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public long accumulateLong(long x, LongBinaryOperator function) {
+      long previous = this.delegate instanceof AtomicLongDelegate
+            ? ((AtomicLongDelegate) this.delegate).getAndUpdateLong(current -> function.applyAsLong(current, x))
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsLong(((Number) current).longValue(), x)))).longValue();
+      long next = function.applyAsLong(previous, x);
+
+      if(previous != next) {
+         this.changed();
+      }
+      return next;
+   }
+
+   /**
+    * Same as {@link Variable#compareAndSet(Object, Object)}, without boxing if the variable's delegate is an
+    * {@link AtomicDoubleDelegate}.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was updated
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public boolean compareAndSetDouble(double expected, double value) {
+      boolean updated = this.delegate instanceof AtomicDoubleDelegate
+            ? ((AtomicDoubleDelegate) this.delegate).compareAndSetDouble(expected, value)
+            : ((AtomicDelegate<Object>) this.atomic()).compareAndSet(this.box(expected), this.box(value));
+
+      if(updated) {
+         this.changed();
+      }
+      return updated;
+   }
+
+   /**
+    * Same as {@link Variable#getAndUpdate(UnaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicDoubleDelegate}.
+    *
+    * @param function a side-effect-free function
+    * @return the previous value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public double getAndUpdateDouble(DoubleUnaryOperator function) {
+      double previous = this.delegate instanceof AtomicDoubleDelegate
+            ? ((AtomicDoubleDelegate) this.delegate).getAndUpdateDouble(function)
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsDouble(((Number) current).doubleValue())))).doubleValue();
+
+      if(Double.compare(previous, function.applyAsDouble(previous)) != 0) {
+         this.changed();
+      }
+      return previous;
+   }
+
+   /**
+    * Same as {@link Variable#accumulate(Object, BinaryOperator)}, without boxing if the variable's delegate is an
+    * {@link AtomicDoubleDelegate}.
+    *
+    * @param x the other value
+    * @param function a side-effect-free function
+    * @return the new value
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    * @throws RuntimeException the variable's type can't hold the value exactly
+    */
+   @SuppressWarnings("unchecked")
+   public double accumulateDouble(double x, DoubleBinaryOperator function) {
+      double previous = this.delegate instanceof AtomicDoubleDelegate
+            ? ((AtomicDoubleDelegate) this.delegate).getAndUpdateDouble(current -> function.applyAsDouble(current, x))
+            : ((Number) ((AtomicDelegate<Object>) this.atomic()).getAndUpdate(
+                  current -> this.box(function.applyAsDouble(((Number) current).doubleValue(), x)))).doubleValue();
+      double next = function.applyAsDouble(previous, x);
+
+      if(Double.compare(previous, next) != 0) {
+         this.changed();
+      }
+      return next;
+   }
+
+   /**
+    * Same as {@link Variable#compareAndSet(Object, Object)}, without boxing if the variable's delegate is an
+    * {@link AtomicBooleanDelegate}.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was updated
+    * @throws RuntimeException the variable's delegate isn't an {@link AtomicDelegate}
+    */
+   @SuppressWarnings("unchecked")
+   public boolean compareAndSetBoolean(boolean expected, boolean value) {
+      boolean updated = this.delegate instanceof AtomicBooleanDelegate
+            ? ((AtomicBooleanDelegate) this.delegate).compareAndSetBoolean(expected, value)
+            : ((AtomicDelegate<Object>) this.atomic()).compareAndSet(this.box(expected), this.box(value));
+
+      if(updated) {
+         this.changed();
+      }
+      return updated;
+   }
+
+   /**
+    * Discards the cached value of a variable whose delegate is a {@link CachingDelegate}, e.g. one created by
+    * {@link Scope#createLazy(String, Class, Supplier)} or
+    * {@link Scope#createMemoized(String, Class, Supplier, Consumer, java.time.Duration)}, so that the next read
+    * computes it again. Listeners aren't notified, since the new value isn't known until it's read.
+    *
+    * @throws RuntimeException the variable's delegate isn't a {@link CachingDelegate}
+    */
+   public void invalidate() {
+      if(!(this.delegate instanceof CachingDelegate)) {
+         throw new RuntimeException("This variable does not cache its value.");
+      }
+
+      ((CachingDelegate<?>) this.delegate).invalidate();
+   }
+
+   /**
+    * Passes a value that was written but is still held by the variable's delegate on to its storage location, if the
+    * delegate is a {@link BufferedDelegate}, e.g. one created by
+    * {@link Scope#addWriteBehind(String, Class, Supplier, Consumer, java.time.Duration)}. Does nothing otherwise.
+    */
+   public void flush() {
+      if(this.delegate instanceof BufferedDelegate) {
+         ((BufferedDelegate<?>) this.delegate).flush();
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private AtomicDelegate<T> atomic() {
+      if(!(this.delegate instanceof AtomicDelegate)) {
+         throw new RuntimeException("This variable does not support atomic updates.");
+      }
+
+      return (AtomicDelegate<T>) this.delegate;
+   }
+
+   /**
+    * Returns whether the variable can't be set, e.g. because it's derived from other variables.
+    *
+    * @return whether the variable is read-only
+    * @see Delegate#isReadOnly()
+    */
+   public boolean isReadOnly() {
+      return this.delegate.isReadOnly();
    }
 
    /**
@@ -111,23 +670,252 @@ public final class Variable<T> {
    /**
     * Updates the variable's value from a string.
     *
+    * When both the parser and the delegate are specialized for the same primitive type (e.g. {@link IntParser} and
+    * {@link IntDelegate}) the value is passed from one to the other without boxing.
+    *
     * @param str unparsed value string
     */
    public void parse(String str) {
+      if(str == null) {
+         this.set(this.getParser().parse((String) null));
+      } else {
+         this.parse(str, 0, str.length());
+      }
+   }
+
+   /**
+    * Updates the variable's value from the characters between {@code start} (inclusive) and {@code end} (exclusive)
+    * of a sequence, without copying them into a string first if the parser supports it.
+    *
+    * @param seq a character sequence containing the unparsed value
+    * @param start the index of the value's first character
+    * @param end the index after the value's last character
+    */
+   public void parse(CharSequence seq, int start, int end) {
+      Parser<T> parser = this.getParser();
+
+      if(parser instanceof IntParser && this.delegate instanceof IntDelegate) {
+         ((IntDelegate) this.delegate).setInt(((IntParser) parser).parseInt(seq, start, end));
+      } else if(parser instanceof LongParser && this.delegate instanceof LongDelegate) {
+         ((LongDelegate) this.delegate).setLong(((LongParser) parser).parseLong(seq, start, end));
+      } else if(parser instanceof DoubleParser && this.delegate instanceof DoubleDelegate) {
+         ((DoubleDelegate) this.delegate).setDouble(((DoubleParser) parser).parseDouble(seq, start, end));
+      } else if(parser instanceof BooleanParser && this.delegate instanceof BooleanDelegate) {
+         ((BooleanDelegate) this.delegate).setBoolean(((BooleanParser) parser).parseBoolean(seq, start, end));
+      } else {
+         this.delegate.set(parser.parse(seq, start, end));
+      }
+
+      this.changed();
+   }
+
+   /**
+    * Updates the variable's value from the UTF-8 encoded bytes between a buffer's position and limit, without
+    * decoding them into a string first if the parser supports it. The buffer's position isn't changed.
+    *
+    * @param buffer a byte buffer containing the unparsed value
+    */
+   public void parse(ByteBuffer buffer) {
+      Parser<T> parser = this.getParser();
+
+      if(parser instanceof IntParser && this.delegate instanceof IntDelegate) {
+         ((IntDelegate) this.delegate).setInt(((IntParser) parser).parseInt(buffer));
+      } else if(parser instanceof LongParser && this.delegate instanceof LongDelegate) {
+         ((LongDelegate) this.delegate).setLong(((LongParser) parser).parseLong(buffer));
+      } else if(parser instanceof DoubleParser && this.delegate instanceof DoubleDelegate) {
+         ((DoubleDelegate) this.delegate).setDouble(((DoubleParser) parser).parseDouble(buffer));
+      } else if(parser instanceof BooleanParser && this.delegate instanceof BooleanDelegate) {
+         ((BooleanDelegate) this.delegate).setBoolean(((BooleanParser) parser).parseBoolean(buffer));
+      } else {
+         this.delegate.set(parser.parse(buffer));
+      }
+
+      this.changed();
+   }
+
+   /**
+    * Registers a listener which is notified on the updating thread whenever the variable is updated through this
+    * object. Exceptions thrown by the listener propagate to the updating caller.
+    *
+    * @param listener the listener
+    * @return the listener's subscription
+    */
+   public Subscription addListener(VariableListener listener) {
+      return this.listeners.add(listener, null, false);
+   }
+
+   /**
+    * Registers a listener which is notified on an executor whenever the variable is updated through this object.
+    *
+    * @param listener the listener
+    * @param executor the executor the listener is notified on
+    * @param coalesce if {@code true}, updates made while a notification is still waiting to be delivered don't
+    *                 cause additional notifications
+    * @return the listener's subscription
+    */
+   public Subscription addListener(VariableListener listener, Executor executor, boolean coalesce) {
+      return this.listeners.add(listener, Objects.requireNonNull(executor), coalesce);
+   }
+
+   private void changed() {
+      this.fire();
+
+      if(this.dependents.length != 0) {
+         Derivation.propagate(this.scope, Collections.singletonList(this));
+      }
+   }
+
+   void fire() {
+      this.listeners.fire(this);
+      this.scope.listeners.fire(this);
+   }
+
+   /**
+    * Updates the variable's value without notifying its listeners or recomputing the variables derived from it, which
+    * {@link Batch} does once all of its updates have been committed.
+    *
+    * @param value the new value
+    */
+   void setSilently(T value) {
+      this.delegate.set(value);
+   }
+
+   /**
+    * Parses a value without updating the variable.
+    *
+    * @param str unparsed value string
+    * @return the parsed value
+    */
+   T parseValue(String str) {
+      return this.getParser().parse(str);
+   }
+
+   private Parser<T> getParser() {
       if(this.parser == null) {
          throw new RuntimeException("This variable does not support parsing.");
       }
 
-      this.set(this.parser.parse(str));
+      return this.parser;
    }
 
    /**
-    * Returns a string representation of the variable's value.
+    * Returns the formatter of the variable's values.
+    *
+    * @return the formatter
+    */
+   public Formatter<T> getFormatter() {
+      return this.formatter;
+   }
+
+   /**
+    * Appends the variable's value formatted by its {@link Formatter}, without boxing it if the variable's delegate and
+    * formatter are both primitive (e.g. an {@link IntDelegate} and an {@link IntFormatter}).
+    *
+    * @param out the builder
+    */
+   public void format(StringBuilder out) {
+      Formatter<T> formatter = this.formatter;
+
+      if(formatter instanceof IntFormatter && this.delegate instanceof IntDelegate) {
+         ((IntFormatter) formatter).formatInt(((IntDelegate) this.delegate).getInt(), out);
+      } else if(formatter instanceof LongFormatter && this.delegate instanceof LongDelegate) {
+         ((LongFormatter) formatter).formatLong(((LongDelegate) this.delegate).getLong(), out);
+      } else if(formatter instanceof DoubleFormatter && this.delegate instanceof DoubleDelegate) {
+         ((DoubleFormatter) formatter).formatDouble(((DoubleDelegate) this.delegate).getDouble(), out);
+      } else if(formatter instanceof BooleanFormatter && this.delegate instanceof BooleanDelegate) {
+         ((BooleanFormatter) formatter).formatBoolean(((BooleanDelegate) this.delegate).getBoolean(), out);
+      } else {
+         formatter.format(this.get(), out);
+      }
+   }
+
+   /**
+    * Appends the variable's value formatted by its {@link Formatter}, see {@link Variable#format(StringBuilder)}.
+    *
+    * @param out the appendable
+    * @throws IOException the appendable failed
+    */
+   public void format(Appendable out) throws IOException {
+      Formatter<T> formatter = this.formatter;
+
+      if(formatter instanceof IntFormatter && this.delegate instanceof IntDelegate) {
+         ((IntFormatter) formatter).formatInt(((IntDelegate) this.delegate).getInt(), out);
+      } else if(formatter instanceof LongFormatter && this.delegate instanceof LongDelegate) {
+         ((LongFormatter) formatter).formatLong(((LongDelegate) this.delegate).getLong(), out);
+      } else if(formatter instanceof DoubleFormatter && this.delegate instanceof DoubleDelegate) {
+         ((DoubleFormatter) formatter).formatDouble(((DoubleDelegate) this.delegate).getDouble(), out);
+      } else if(formatter instanceof BooleanFormatter && this.delegate instanceof BooleanDelegate) {
+         ((BooleanFormatter) formatter).formatBoolean(((BooleanDelegate) this.delegate).getBoolean(), out);
+      } else {
+         formatter.format(this.get(), out);
+      }
+   }
+
+   /**
+    * Writes the variable's value formatted by its {@link Formatter} to a buffer as UTF-8, see
+    * {@link Formatter#format(Object, ByteBuffer)}.
+    *
+    * @param out the buffer
+    * @throws java.nio.BufferOverflowException the buffer doesn't have enough space remaining
+    */
+   public void format(ByteBuffer out) {
+      Formatter<T> formatter = this.formatter;
+
+      if(formatter instanceof IntFormatter && this.delegate instanceof IntDelegate) {
+         ((IntFormatter) formatter).formatInt(((IntDelegate) this.delegate).getInt(), out);
+      } else if(formatter instanceof LongFormatter && this.delegate instanceof LongDelegate) {
+         ((LongFormatter) formatter).formatLong(((LongDelegate) this.delegate).getLong(), out);
+      } else if(formatter instanceof DoubleFormatter && this.delegate instanceof DoubleDelegate) {
+         ((DoubleFormatter) formatter).formatDouble(((DoubleDelegate) this.delegate).getDouble(), out);
+      } else if(formatter instanceof BooleanFormatter && this.delegate instanceof BooleanDelegate) {
+         ((BooleanFormatter) formatter).formatBoolean(((BooleanDelegate) this.delegate).getBoolean(), out);
+      } else {
+         formatter.format(this.get(), out);
+      }
+   }
+
+   /**
+    * Returns the variable's value formatted by its {@link Formatter}.
+    *
+    * If the variable's type is immutable (primitives, their boxed types, {@link String} and enums), the last string
+    * is cached and returned again for as long as the value stays equal, so repeatedly formatting an unchanged
+    * variable doesn't allocate.
     *
     * @return a string representation of the variable's value
     */
    @Override
    public String toString() {
-      return String.valueOf(this.get());
+      T value = this.get();
+      if(!this.immutableValue) {
+         return this.formatter.format(value);
+      }
+
+      Formatted formatted = this.formatted;
+      if(formatted != null && Objects.equals(formatted.value, value)) {
+         return formatted.text;
+      }
+
+      String text = this.formatter.format(value);
+      this.formatted = new Formatted(value, text);
+      return text;
+   }
+
+   private static boolean isImmutable(Class<?> type) {
+      return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class
+            || type == Character.class || type == Byte.class || type == Short.class || type == Integer.class
+            || type == Long.class || type == Float.class || type == Double.class;
+   }
+
+   /**
+    * A value and its formatted text.
+    */
+   private static final class Formatted {
+      private final Object value;
+      private final String text;
+
+      private Formatted(Object value, String text) {
+         this.value = value;
+         this.text = text;
+      }
    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars;
+
+/**
+ * A resolved reference to a variable of a {@link Scope}, obtained with {@link Scope#key(String, Class)}.
+ *
+ * The key stores the variable's index in the scope's table, so {@link Scope#get(VariableKey)} neither hashes a name
+ * nor needs an unchecked cast by the caller. Since variables are never removed from a scope, a key remains valid for
+ * the scope's lifetime.
+ *
+ * @param <T> the variable's type
+ */
+public final class VariableKey<T> {
+   private final Scope scope;
+   private final String name;
+   private final Class<T> type;
+   final int index;
+
+   VariableKey(Scope scope, String name, Class<T> type, int index) {
+      this.scope = scope;
+      this.name = name;
+      this.type = type;
+      this.index = index;
+   }
+
+   /**
+    * Returns the scope the key belongs to.
+    *
+    * @return the scope the key belongs to
+    */
+   public Scope getScope() {
+      return this.scope;
+   }
+
+   /**
+    * Returns the name of the variable.
+    *
+    * @return the name of the variable
+    */
+   public String getName() {
+      return this.name;
+   }
+
+   /**
+    * Returns the type of the variable.
+    *
+    * @return the type of the variable
+    */
+   public Class<T> getType() {
+      return this.type;
+   }
+}
@@ -30,6 +30,6 @@ import java.lang.annotation.*;
 public @interface GenerateVariable {
    String value() default "";
    String description() default "";
-   Class<?extends Delegate> delegate() default FieldDelegate.class;
+   Class<?extends Delegate> delegate() default FieldHandleDelegate.class;
    Class<?> type() default Auto.class;
 }
@@ -23,6 +23,7 @@
 package sh.cody.namedvars.annotation;
 
 import sh.cody.namedvars.delegate.Delegate;
+import sh.cody.namedvars.delegate.FieldHandleDelegate;
 import java.lang.reflect.*;
 import java.util.Objects;
 
@@ -55,6 +56,10 @@ public final class GenerateVariableResolver {
    public <T> Delegate<T> getDelegate() {
       Class<?extends Delegate> delegateClass = generateAnnotation.delegate();
 
+      if(delegateClass == FieldHandleDelegate.class) {
+         return FieldHandleDelegate.of(this.instance, this.field);
+      }
+
       try {
          return delegateClass.getConstructor(Object.class, Field.class).newInstance(this.instance, this.field);
       } catch(IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException e) {
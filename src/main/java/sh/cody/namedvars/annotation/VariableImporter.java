@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.annotation;
+
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+
+/**
+ * Imports the fields of a class annotated with {@link GenerateVariable} into a {@link Scope} without reflection.
+ *
+ * Implementations are generated at compile time by the {@code named-variables-processor} annotation processor and are
+ * picked up automatically by {@link Scope#importAll(Object)}, see {@link VariableImporters}.
+ *
+ * @param <T> the type of the instances whose fields are imported
+ */
+public interface VariableImporter<T> {
+   /**
+    * Imports all fields annotated with {@link GenerateVariable} that are declared by the importer's class.
+    *
+    * @param scope the scope to import into
+    * @param instance an instance
+    * @param namespace the namespace of the variables, see {@link Scope#importAll(Object, String)}
+    * @return an array containing all variables that were imported
+    * @throws ScopeException one or more of the field's variable names already exist within the scope
+    */
+   Variable<?>[] importAll(Scope scope, T instance, String namespace) throws ScopeException;
+}
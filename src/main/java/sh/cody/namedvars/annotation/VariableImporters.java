@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.annotation;
+
+/**
+ * Locates {@link VariableImporter}s generated by the {@code named-variables-processor} annotation processor.
+ *
+ * The importer of a class is named after the class' binary name followed by {@link VariableImporters#SUFFIX}, e.g.
+ * {@code com.example.Config_VariableImporter}. Lookups are cached per class.
+ */
+public final class VariableImporters {
+   public static final String SUFFIX = "_VariableImporter";
+
+   private static final ClassValue<VariableImporter<?>> IMPORTERS = new ClassValue<VariableImporter<?>>() {
+      @Override
+      protected VariableImporter<?> computeValue(Class<?> type) {
+         try {
+            Class<?> importerClass = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+            return (VariableImporter<?>) importerClass.getConstructor().newInstance();
+         } catch(ClassNotFoundException ignored) {
+            return null;
+         } catch(ReflectiveOperationException | ClassCastException exception) {
+            throw new RuntimeException("Failed to create variable importer.", exception);
+         }
+      }
+   };
+
+   private VariableImporters() {}
+
+   /**
+    * Returns the generated importer of a class.
+    *
+    * @param type a class
+    * @param <T> the type of the instances the importer accepts
+    * @return the class' importer or {@code null} if none was generated
+    */
+   @SuppressWarnings("unchecked")
+   public static <T> VariableImporter<T> find(Class<?> type) {
+      return (VariableImporter<T>) IMPORTERS.get(type);
+   }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A {@link BooleanDelegate} and {@link AtomicDelegate} implementation that can be used when a boolean variable shared
+ * between threads has no preexisting storage location.
+ *
+ * @see AtomicIntDelegate
+ */
+public final class AtomicBooleanDelegate implements BooleanDelegate, AtomicDelegate<Boolean> {
+   private static final AtomicIntegerFieldUpdater<AtomicBooleanDelegate> VALUE =
+         AtomicIntegerFieldUpdater.newUpdater(AtomicBooleanDelegate.class, "value");
+
+   private final boolean release;
+   private volatile int value;
+
+   public AtomicBooleanDelegate(boolean value, MemoryOrder order) {
+      this.release = order == MemoryOrder.RELEASE;
+      this.value = value ? 1 : 0;
+   }
+
+   @Override
+   public boolean getBoolean() {
+      return this.value != 0;
+   }
+
+   @Override
+   public void setBoolean(boolean value) {
+      if(this.release) {
+         VALUE.lazySet(this, value ? 1 : 0);
+      } else {
+         this.value = value ? 1 : 0;
+      }
+   }
+
+   public boolean compareAndSetBoolean(boolean expected, boolean value) {
+      return VALUE.compareAndSet(this, expected ? 1 : 0, value ? 1 : 0);
+   }
+
+   @Override
+   public boolean compareAndSet(Boolean expected, Boolean value) {
+      return this.compareAndSetBoolean(expected, value);
+   }
+}
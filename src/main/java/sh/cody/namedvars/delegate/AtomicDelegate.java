@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.function.*;
+
+/**
+ * A {@link Delegate} that stores its value in a way that is visible to every thread and which supports atomic
+ * read-modify-write operations.
+ *
+ * {@link sh.cody.namedvars.Variable#compareAndSet(Object, Object)},
+ * {@link sh.cody.namedvars.Variable#getAndUpdate(UnaryOperator)} and
+ * {@link sh.cody.namedvars.Variable#accumulate(Object, BinaryOperator)} require a variable's delegate to implement this
+ * interface.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public interface AtomicDelegate<T> extends Delegate<T> {
+   /**
+    * Atomically sets the value if the current value {@link Object#equals(Object) equals} the expected value.
+    *
+    * @param expected the expected value
+    * @param value the new value
+    * @return whether the value was set
+    */
+   boolean compareAndSet(T expected, T value);
+
+   /**
+    * Atomically replaces the value with the result of a function, which may be applied more than once if the value
+    * is updated concurrently.
+    *
+    * @param function a side-effect-free function
+    * @return the previous value
+    */
+   default T getAndUpdate(UnaryOperator<T> function) {
+      T current;
+      do {
+         current = this.get();
+      } while(!this.compareAndSet(current, function.apply(current)));
+      return current;
+   }
+
+   /**
+    * Atomically replaces the value with the result of a function, which may be applied more than once if the value
+    * is updated concurrently.
+    *
+    * @param function a side-effect-free function
+    * @return the new value
+    */
+   default T updateAndGet(UnaryOperator<T> function) {
+      T current, next;
+      do {
+         current = this.get();
+         next = function.apply(current);
+      } while(!this.compareAndSet(current, next));
+      return next;
+   }
+
+   /**
+    * Atomically replaces the value with the result of a function applied to the current value and another value,
+    * which may be applied more than once if the value is updated concurrently.
+    *
+    * @param x the other value
+    * @param function a side-effect-free function
+    * @return the new value
+    */
+   default T accumulateAndGet(T x, BinaryOperator<T> function) {
+      T current, next;
+      do {
+         current = this.get();
+         next = function.apply(current, x);
+      } while(!this.compareAndSet(current, next));
+      return next;
+   }
+}
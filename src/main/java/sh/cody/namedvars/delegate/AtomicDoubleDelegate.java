@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.*;
+
+/**
+ * A {@link DoubleDelegate} and {@link AtomicDelegate} implementation that can be used when a double variable shared
+ * between threads has no preexisting storage location.
+ *
+ * The value is stored as its raw bits. Like {@link Double#equals(Object)}, {@link #compareAndSetDouble(double, double)}
+ * compares values by their bits, so {@code NaN} matches {@code NaN} and {@code 0.0} doesn't match {@code -0.0}.
+ *
+ * @see AtomicIntDelegate
+ */
+public final class AtomicDoubleDelegate implements DoubleDelegate, AtomicDelegate<Double> {
+   private static final AtomicLongFieldUpdater<AtomicDoubleDelegate> BITS =
+         AtomicLongFieldUpdater.newUpdater(AtomicDoubleDelegate.class, "bits");
+
+   private final boolean release;
+   private volatile long bits;
+
+   public AtomicDoubleDelegate(double value, MemoryOrder order) {
+      this.release = order == MemoryOrder.RELEASE;
+      this.bits = Double.doubleToRawLongBits(value);
+   }
+
+   @Override
+   public double getDouble() {
+      return Double.longBitsToDouble(this.bits);
+   }
+
+   @Override
+   public void setDouble(double value) {
+      if(this.release) {
+         BITS.lazySet(this, Double.doubleToRawLongBits(value));
+      } else {
+         this.bits = Double.doubleToRawLongBits(value);
+      }
+   }
+
+   public boolean compareAndSetDouble(double expected, double value) {
+      long expectedBits = Double.doubleToLongBits(expected), next = Double.doubleToRawLongBits(value);
+      long current;
+      do {
+         current = this.bits;
+         // NaNs with different payloads are equal, so compare canonical bits but swap the exact ones.
+         if(Double.doubleToLongBits(Double.longBitsToDouble(current)) != expectedBits) {
+            return false;
+         }
+      } while(!BITS.compareAndSet(this, current, next));
+      return true;
+   }
+
+   public double getAndUpdateDouble(DoubleUnaryOperator function) {
+      long current;
+      double previous;
+      do {
+         current = this.bits;
+         previous = Double.longBitsToDouble(current);
+      } while(!BITS.compareAndSet(this, current, Double.doubleToRawLongBits(function.applyAsDouble(previous))));
+      return previous;
+   }
+
+   public double accumulateAndGetDouble(double x, DoubleBinaryOperator function) {
+      long current;
+      double next;
+      do {
+         current = this.bits;
+         next = function.applyAsDouble(Double.longBitsToDouble(current), x);
+      } while(!BITS.compareAndSet(this, current, Double.doubleToRawLongBits(next)));
+      return next;
+   }
+
+   @Override
+   public boolean compareAndSet(Double expected, Double value) {
+      return this.compareAndSetDouble(expected, value);
+   }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.*;
+
+/**
+ * An {@link IntDelegate} and {@link AtomicDelegate} implementation that can be used when an int variable shared
+ * between threads has no preexisting storage location.
+ *
+ * {@link sh.cody.namedvars.Variable#compareAndSetInt(int, int)}, {@link sh.cody.namedvars.Variable#getAndUpdateInt(IntUnaryOperator)}
+ * and {@link sh.cody.namedvars.Variable#accumulateInt(int, IntBinaryOperator)} use the unboxed methods directly.
+ *
+ * @see Delegate#ofAtomicValue(Class, Object, MemoryOrder)
+ */
+public final class AtomicIntDelegate implements IntDelegate, AtomicDelegate<Integer> {
+   private static final AtomicIntegerFieldUpdater<AtomicIntDelegate> VALUE =
+         AtomicIntegerFieldUpdater.newUpdater(AtomicIntDelegate.class, "value");
+
+   private final boolean release;
+   private volatile int value;
+
+   public AtomicIntDelegate(int value, MemoryOrder order) {
+      this.release = order == MemoryOrder.RELEASE;
+      this.value = value;
+   }
+
+   @Override
+   public int getInt() {
+      return this.value;
+   }
+
+   @Override
+   public void setInt(int value) {
+      if(this.release) {
+         VALUE.lazySet(this, value);
+      } else {
+         this.value = value;
+      }
+   }
+
+   public boolean compareAndSetInt(int expected, int value) {
+      return VALUE.compareAndSet(this, expected, value);
+   }
+
+   public int getAndUpdateInt(IntUnaryOperator function) {
+      return VALUE.getAndUpdate(this, function);
+   }
+
+   public int accumulateAndGetInt(int x, IntBinaryOperator function) {
+      return VALUE.accumulateAndGet(this, x, function);
+   }
+
+   @Override
+   public boolean compareAndSet(Integer expected, Integer value) {
+      return this.compareAndSetInt(expected, value);
+   }
+}
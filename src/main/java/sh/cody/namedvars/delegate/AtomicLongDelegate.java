@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.*;
+
+/**
+ * A {@link LongDelegate} and {@link AtomicDelegate} implementation that can be used when a long variable shared
+ * between threads has no preexisting storage location.
+ *
+ * @see AtomicIntDelegate
+ */
+public final class AtomicLongDelegate implements LongDelegate, AtomicDelegate<Long> {
+   private static final AtomicLongFieldUpdater<AtomicLongDelegate> VALUE =
+         AtomicLongFieldUpdater.newUpdater(AtomicLongDelegate.class, "value");
+
+   private final boolean release;
+   private volatile long value;
+
+   public AtomicLongDelegate(long value, MemoryOrder order) {
+      this.release = order == MemoryOrder.RELEASE;
+      this.value = value;
+   }
+
+   @Override
+   public long getLong() {
+      return this.value;
+   }
+
+   @Override
+   public void setLong(long value) {
+      if(this.release) {
+         VALUE.lazySet(this, value);
+      } else {
+         this.value = value;
+      }
+   }
+
+   public boolean compareAndSetLong(long expected, long value) {
+      return VALUE.compareAndSet(this, expected, value);
+   }
+
+   public long getAndUpdateLong(LongUnaryOperator function) {
+      return VALUE.getAndUpdate(this, function);
+   }
+
+   public long accumulateAndGetLong(long x, LongBinaryOperator function) {
+      return VALUE.accumulateAndGet(this, x, function);
+   }
+
+   @Override
+   public boolean compareAndSet(Long expected, Long value) {
+      return this.compareAndSetLong(expected, value);
+   }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * An {@link AtomicDelegate} implementation that can be used when a variable shared between threads has no preexisting
+ * storage location.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ * @see Delegate#ofAtomicValue(Class, Object, MemoryOrder)
+ */
+public final class AtomicValueDelegate<T> implements AtomicDelegate<T> {
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<AtomicValueDelegate, Object> VALUE =
+         AtomicReferenceFieldUpdater.newUpdater(AtomicValueDelegate.class, Object.class, "value");
+
+   private final boolean release;
+   private volatile Object value;
+
+   public AtomicValueDelegate(T value, MemoryOrder order) {
+      this.release = order == MemoryOrder.RELEASE;
+      this.value = value;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public T get() {
+      return (T) this.value;
+   }
+
+   @Override
+   public void set(T value) {
+      if(this.release) {
+         VALUE.lazySet(this, value);
+      } else {
+         this.value = value;
+      }
+   }
+
+   @Override
+   public boolean compareAndSet(T expected, T value) {
+      // the updater compares references: retry while an equal value is swapped for another instance.
+      Object current;
+      do {
+         current = this.value;
+         if(!Objects.equals(current, expected)) {
+            return false;
+         }
+      } while(!VALUE.compareAndSet(this, current, value));
+      return true;
+   }
+}
@@ -42,6 +42,17 @@ public interface Delegate<T> {
    T get();
    void set(T value);
 
+   /**
+    * Returns whether {@link Delegate#set(Object)} always fails, e.g. because the value is computed from other
+    * variables. Read-only variables are skipped when a scope is exported or snapshotted, and ignored when one is
+    * loaded or restored.
+    *
+    * @return whether the delegate is read-only
+    */
+   default boolean isReadOnly() {
+      return false;
+   }
+
    /**
     * Generates an implementation of {@link Delegate} from a functional getter and setter.
     *
@@ -63,4 +74,56 @@ public interface Delegate<T> {
          }
       };
    }
+
+   /**
+    * Generates a {@link Delegate} which stores the value itself. Variables of type {@code int}, {@code long},
+    * {@code double} and {@code boolean} are given a primitive delegate (e.g. {@link StoredIntDelegate}) which holds
+    * the unboxed value, in which case a {@code null} initial value is stored as the primitive's default.
+    *
+    * @param type the type of the variable
+    * @param value the initial value
+    * @param <T> the type of the stored value as its known by the Scope
+    * @return an implementation of Delegate
+    */
+   @SuppressWarnings("unchecked")
+   static <T> Delegate<T> ofStoredValue(Class<T> type, T value) {
+      if(type == int.class) {
+         return (Delegate<T>) new StoredIntDelegate(value == null ? 0 : (Integer) value);
+      } else if(type == long.class) {
+         return (Delegate<T>) new StoredLongDelegate(value == null ? 0L : (Long) value);
+      } else if(type == double.class) {
+         return (Delegate<T>) new StoredDoubleDelegate(value == null ? 0.0 : (Double) value);
+      } else if(type == boolean.class) {
+         return (Delegate<T>) new StoredBooleanDelegate(value != null && (Boolean) value);
+      } else {
+         return new StoredValueDelegate<>(value);
+      }
+   }
+
+   /**
+    * Generates an {@link AtomicDelegate} which stores the value itself, so that it's visible to every thread and can
+    * be updated atomically. Variables of type {@code int}, {@code long}, {@code double} and {@code boolean} are given
+    * a primitive delegate (e.g. {@link AtomicIntDelegate}) which holds the unboxed value, in which case a {@code null}
+    * initial value is stored as the primitive's default.
+    *
+    * @param type the type of the variable
+    * @param value the initial value
+    * @param order the memory ordering of writes
+    * @param <T> the type of the stored value as its known by the Scope
+    * @return an implementation of AtomicDelegate
+    */
+   @SuppressWarnings("unchecked")
+   static <T> AtomicDelegate<T> ofAtomicValue(Class<T> type, T value, MemoryOrder order) {
+      if(type == int.class) {
+         return (AtomicDelegate<T>) new AtomicIntDelegate(value == null ? 0 : (Integer) value, order);
+      } else if(type == long.class) {
+         return (AtomicDelegate<T>) new AtomicLongDelegate(value == null ? 0L : (Long) value, order);
+      } else if(type == double.class) {
+         return (AtomicDelegate<T>) new AtomicDoubleDelegate(value == null ? 0.0 : (Double) value, order);
+      } else if(type == boolean.class) {
+         return (AtomicDelegate<T>) new AtomicBooleanDelegate(value != null && (Boolean) value, order);
+      } else {
+         return new AtomicValueDelegate<>(value, order);
+      }
+   }
 }
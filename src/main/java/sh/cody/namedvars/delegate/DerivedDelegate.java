@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A read-only {@link Delegate} whose value is computed from other variables.
+ *
+ * The value is computed when the delegate is constructed and then stored until {@link DerivedDelegate#recompute()} is
+ * called, which {@link sh.cody.namedvars.Scope} does whenever one of the inputs of a variable created by
+ * {@link sh.cody.namedvars.Scope#createDerived(String, Class, Supplier, sh.cody.namedvars.Variable[])} changes.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public final class DerivedDelegate<T> implements Delegate<T> {
+   private final Supplier<? extends T> function;
+   private volatile T value;
+
+   public DerivedDelegate(Supplier<? extends T> function) {
+      this.function = Objects.requireNonNull(function);
+      this.value = function.get();
+   }
+
+   @Override
+   public T get() {
+      return this.value;
+   }
+
+   @Override
+   public void set(T value) {
+      throw new RuntimeException("This variable is derived from other variables and can't be set.");
+   }
+
+   @Override
+   public boolean isReadOnly() {
+      return true;
+   }
+
+   /**
+    * Computes and stores the value again.
+    *
+    * @return whether the new value differs from the previous one
+    */
+   public boolean recompute() {
+      T value = this.function.get();
+      T previous = this.value;
+      this.value = value;
+      return !Objects.equals(previous, value);
+   }
+}
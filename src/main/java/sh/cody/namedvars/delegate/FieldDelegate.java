@@ -30,7 +30,7 @@ import java.util.Objects;
  *
  * This class is designed so descendents can easily instrument {@link FieldDelegate#get()} and
  * {@link FieldDelegate#set(Object)} so they may target fields whose types may be too complex for a
- * {@link sh.cody.namedvars.parse.Parser}.
+ * {@link sh.cody.namedvars.parse.Parser}. Plain fields are better served by {@link FieldHandleDelegate}.
  *
  * @param <T> the type of the stored value as its known by the Scope
  */
@@ -41,6 +41,7 @@ public class FieldDelegate<T> implements Delegate<T> {
    public FieldDelegate(Object instance, Field field) {
       this.instance = instance;
       this.field = Objects.requireNonNull(field);
+      this.field.setAccessible(true);
    }
 
    /**
@@ -50,7 +51,6 @@ public class FieldDelegate<T> implements Delegate<T> {
     */
    protected final void writeField(Object value) {
       try {
-         this.field.setAccessible(true);
          this.field.set(this.instance, value);
       } catch(IllegalAccessException exception) {
          throw new RuntimeException("Failed to write to reflected field.", exception);
@@ -64,7 +64,6 @@ public class FieldDelegate<T> implements Delegate<T> {
     */
    protected final Object readField() {
       try {
-         this.field.setAccessible(true);
          return this.field.get(this.instance);
       } catch(IllegalAccessException exception) {
          throw new RuntimeException("Failed to read from reflected field.", exception);
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@link Delegate} implementation that can be used when a variable's value is stored within a Java field.
+ *
+ * Unlike {@link FieldDelegate}, the field is resolved exactly once into a getter and setter {@link MethodHandle} bound
+ * to the field's parent instance, so accessing the variable doesn't repeat reflective access checks. This is the
+ * default delegate of {@link sh.cody.namedvars.annotation.GenerateVariable}.
+ *
+ * A {@code static final} field can't be written, so its delegate is {@link Delegate#isReadOnly() read-only} and only
+ * fails once a value is set.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public class FieldHandleDelegate<T> implements Delegate<T> {
+   private final MethodHandle getter;
+   private final MethodHandle setter;
+   private final MethodHandle exactGetter;
+   private final MethodHandle exactSetter;
+
+   public FieldHandleDelegate(Object instance, Field field) {
+      this(new Handles(field), instance);
+   }
+
+   private FieldHandleDelegate(Handles handles, Object instance) {
+      if(handles.isStatic) {
+         this.exactGetter = handles.exactGetter;
+         this.exactSetter = handles.exactSetter;
+         this.getter = handles.getter;
+         this.setter = handles.setter;
+      } else {
+         Objects.requireNonNull(instance);
+         this.exactGetter = handles.exactGetter.bindTo(instance);
+         this.exactSetter = handles.exactSetter == null ? null : handles.exactSetter.bindTo(instance);
+         this.getter = handles.getter.bindTo(instance);
+         this.setter = handles.setter == null ? null : handles.setter.bindTo(instance);
+      }
+   }
+
+   /**
+    * Reads the value of the field through its getter handle.
+    *
+    * @return the value
+    */
+   @SuppressWarnings("unchecked")
+   @Override
+   public T get() {
+      try {
+         Object value = this.getter.invokeExact();
+         return (T) value;
+      } catch(Throwable throwable) {
+         throw rethrow("Failed to read from field.", throwable);
+      }
+   }
+
+   /**
+    * Writes a value to the field through its setter handle.
+    *
+    * @param value value to set
+    */
+   @Override
+   public void set(T value) {
+      if(this.setter == null) {
+         throw readOnly();
+      }
+
+      try {
+         this.setter.invokeExact((Object) value);
+      } catch(Throwable throwable) {
+         throw rethrow("Failed to write to field.", throwable);
+      }
+   }
+
+   /**
+    * Returns whether the field is {@code static final}, and so can't be written.
+    *
+    * @return whether the field is read-only
+    */
+   @Override
+   public boolean isReadOnly() {
+      return this.setter == null;
+   }
+
+   /**
+    * Creates the most specific {@link FieldHandleDelegate} for a field, i.e. one that also implements
+    * {@link IntDelegate}, {@link LongDelegate}, {@link DoubleDelegate} or {@link BooleanDelegate} when the field has the
+    * matching primitive type.
+    *
+    * @param instance the field's parent instance
+    * @param field the field
+    * @param <T> the type of the stored value as its known by the Scope
+    * @return a delegate for the field
+    */
+   public static <T> FieldHandleDelegate<T> of(Object instance, Field field) {
+      return FieldHandleDelegate.<T>factory(field).apply(instance);
+   }
+
+   /**
+    * Resolves a field's handles once and returns a function which creates the most specific
+    * {@link FieldHandleDelegate} for the field of an instance, see {@link FieldHandleDelegate#of(Object, Field)}.
+    * Creating a delegate through the function only binds the resolved handles to the instance.
+    *
+    * @param field the field
+    * @param <T> the type of the stored value as its known by the Scope
+    * @return a function which accepts the field's parent instance, or any value if the field is static
+    */
+   @SuppressWarnings("unchecked")
+   public static <T> Function<Object, FieldHandleDelegate<T>> factory(Field field) {
+      Handles handles = new Handles(field);
+      Class<?> type = field.getType();
+
+      if(type == int.class) {
+         return instance -> (FieldHandleDelegate<T>) new OfInt(handles, instance);
+      } else if(type == long.class) {
+         return instance -> (FieldHandleDelegate<T>) new OfLong(handles, instance);
+      } else if(type == double.class) {
+         return instance -> (FieldHandleDelegate<T>) new OfDouble(handles, instance);
+      } else if(type == boolean.class) {
+         return instance -> (FieldHandleDelegate<T>) new OfBoolean(handles, instance);
+      } else {
+         return instance -> new FieldHandleDelegate<>(handles, instance);
+      }
+   }
+
+   /**
+    * The handles of a field which haven't been bound to an instance yet.
+    */
+   private static final class Handles {
+      private final boolean isStatic;
+      private final MethodHandle getter;
+      private final MethodHandle setter;
+      private final MethodHandle exactGetter;
+      private final MethodHandle exactSetter;
+
+      private Handles(Field field) {
+         Objects.requireNonNull(field);
+         this.isStatic = Modifier.isStatic(field.getModifiers());
+
+         try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.exactGetter = lookup.unreflectGetter(field);
+            // even an accessible static final field has no setter handle.
+            this.exactSetter = this.isStatic && Modifier.isFinal(field.getModifiers())
+                  ? null : lookup.unreflectSetter(field);
+         } catch(IllegalAccessException exception) {
+            throw new RuntimeException("Failed to resolve field handles.", exception);
+         }
+
+         // the receiver, if any, stays the leading parameter so that it can be bound later.
+         Class<?>[] receiver = this.isStatic ? new Class<?>[0] : new Class<?>[] {field.getDeclaringClass()};
+         this.getter = this.exactGetter.asType(MethodType.methodType(Object.class, receiver));
+         this.setter = this.exactSetter == null ? null : this.exactSetter.asType(
+               MethodType.methodType(void.class, receiver).appendParameterTypes(Object.class));
+      }
+   }
+
+   private static RuntimeException readOnly() {
+      return new RuntimeException("Failed to write to field, it's static and final.");
+   }
+
+   private static RuntimeException rethrow(String message, Throwable throwable) {
+      if(throwable instanceof RuntimeException) {
+         return (RuntimeException) throwable;
+      } else if(throwable instanceof Error) {
+         throw (Error) throwable;
+      } else {
+         return new RuntimeException(message, throwable);
+      }
+   }
+
+   /**
+    * A {@link FieldHandleDelegate} for {@code int} fields which reads and writes the field without boxing.
+    */
+   public static class OfInt extends FieldHandleDelegate<Integer> implements IntDelegate {
+      public OfInt(Object instance, Field field) {
+         super(instance, field);
+      }
+
+      private OfInt(Handles handles, Object instance) {
+         super(handles, instance);
+      }
+
+      @Override
+      public int getInt() {
+         try {
+            return (int) super.exactGetter.invokeExact();
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to read from field.", throwable);
+         }
+      }
+
+      @Override
+      public void setInt(int value) {
+         if(super.exactSetter == null) {
+            throw readOnly();
+         }
+
+         try {
+            super.exactSetter.invokeExact(value);
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to write to field.", throwable);
+         }
+      }
+   }
+
+   /**
+    * A {@link FieldHandleDelegate} for {@code long} fields which reads and writes the field without boxing.
+    */
+   public static class OfLong extends FieldHandleDelegate<Long> implements LongDelegate {
+      public OfLong(Object instance, Field field) {
+         super(instance, field);
+      }
+
+      private OfLong(Handles handles, Object instance) {
+         super(handles, instance);
+      }
+
+      @Override
+      public long getLong() {
+         try {
+            return (long) super.exactGetter.invokeExact();
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to read from field.", throwable);
+         }
+      }
+
+      @Override
+      public void setLong(long value) {
+         if(super.exactSetter == null) {
+            throw readOnly();
+         }
+
+         try {
+            super.exactSetter.invokeExact(value);
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to write to field.", throwable);
+         }
+      }
+   }
+
+   /**
+    * A {@link FieldHandleDelegate} for {@code double} fields which reads and writes the field without boxing.
+    */
+   public static class OfDouble extends FieldHandleDelegate<Double> implements DoubleDelegate {
+      public OfDouble(Object instance, Field field) {
+         super(instance, field);
+      }
+
+      private OfDouble(Handles handles, Object instance) {
+         super(handles, instance);
+      }
+
+      @Override
+      public double getDouble() {
+         try {
+            return (double) super.exactGetter.invokeExact();
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to read from field.", throwable);
+         }
+      }
+
+      @Override
+      public void setDouble(double value) {
+         if(super.exactSetter == null) {
+            throw readOnly();
+         }
+
+         try {
+            super.exactSetter.invokeExact(value);
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to write to field.", throwable);
+         }
+      }
+   }
+
+   /**
+    * A {@link FieldHandleDelegate} for {@code boolean} fields which reads and writes the field without boxing.
+    */
+   public static class OfBoolean extends FieldHandleDelegate<Boolean> implements BooleanDelegate {
+      public OfBoolean(Object instance, Field field) {
+         super(instance, field);
+      }
+
+      private OfBoolean(Handles handles, Object instance) {
+         super(handles, instance);
+      }
+
+      @Override
+      public boolean getBoolean() {
+         try {
+            return (boolean) super.exactGetter.invokeExact();
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to read from field.", throwable);
+         }
+      }
+
+      @Override
+      public void setBoolean(boolean value) {
+         if(super.exactSetter == null) {
+            throw readOnly();
+         }
+
+         try {
+            super.exactSetter.invokeExact(value);
+         } catch(Throwable throwable) {
+            throw rethrow("Failed to write to field.", throwable);
+         }
+      }
+   }
+}
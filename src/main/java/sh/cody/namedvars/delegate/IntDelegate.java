@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+/**
+ * A {@link Delegate} that can access its int value without boxing it.
+ *
+ * {@link sh.cody.namedvars.Variable#getInt()}, {@link sh.cody.namedvars.Variable#setInt(int)} and parsing through a
+ * {@link sh.cody.namedvars.parse.IntParser} use these methods directly when a variable's delegate implements this
+ * interface.
+ */
+public interface IntDelegate extends Delegate<Integer> {
+   int getInt();
+   void setInt(int value);
+
+   @Override
+   default Integer get() {
+      return this.getInt();
+   }
+
+   @Override
+   default void set(Integer value) {
+      this.setInt(value);
+   }
+}
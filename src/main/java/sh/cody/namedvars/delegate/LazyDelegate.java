@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link CachingDelegate} which computes its initial value on first access, then stores its value itself like a
+ * {@link StoredValueDelegate}.
+ *
+ * The initial value is computed at most once, even if several threads read the variable concurrently for the first
+ * time: the first reader calls the supplier while the others wait for its result. Once computed, reads are a single
+ * volatile read. Writing a value before the first read means the supplier is never called;
+ * {@link LazyDelegate#invalidate()} discards the stored value, so the next read calls the supplier again.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public final class LazyDelegate<T> implements CachingDelegate<T> {
+   private static final Object UNSET = new Object();
+
+   private final Supplier<? extends T> supplier;
+   private final Object lock = new Object();
+   private volatile Object value = UNSET;
+
+   public LazyDelegate(Supplier<? extends T> supplier) {
+      this.supplier = Objects.requireNonNull(supplier);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public T get() {
+      Object value = this.value;
+
+      if(value == UNSET) {
+         synchronized(this.lock) {
+            value = this.value;
+            if(value == UNSET) {
+               value = this.supplier.get();
+               this.value = value;
+            }
+         }
+      }
+
+      return (T) value;
+   }
+
+   @Override
+   public void set(T value) {
+      // a write can't be overwritten by a computation that's still in progress.
+      synchronized(this.lock) {
+         this.value = value;
+      }
+   }
+
+   @Override
+   public void invalidate() {
+      synchronized(this.lock) {
+         this.value = UNSET;
+      }
+   }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.*;
+
+/**
+ * A {@link CachingDelegate} which caches the value of a functional getter, optionally for a limited time.
+ *
+ * Unlike {@link Delegate#fromGetterAndSetter(Supplier, Consumer)}, the getter is only called when there's no cached
+ * value: on the first read, after {@link MemoizedDelegate#invalidate()}, after a write and once the cached value
+ * expired. Concurrent readers that find no cached value don't call the getter more than once; the first one computes
+ * the value while the others wait for its result. Writes are passed to the setter and then invalidate the cached
+ * value, so the next read reflects whatever the setter did to the source. Without a setter, the delegate is
+ * {@link Delegate#isReadOnly() read-only}.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public final class MemoizedDelegate<T> implements CachingDelegate<T> {
+   private final Supplier<? extends T> getter;
+   private final Consumer<? super T> setter;
+   private final long expiryNanos;
+   private final Object lock = new Object();
+   private volatile Cached<T> cached;
+
+   /**
+    * Constructs a new {@link MemoizedDelegate} whose cached value doesn't expire.
+    *
+    * @param getter the value getter
+    * @param setter the value setter, or {@code null} if the variable is read-only
+    */
+   public MemoizedDelegate(Supplier<? extends T> getter, Consumer<? super T> setter) {
+      this(getter, setter, null);
+   }
+
+   /**
+    * Constructs a new {@link MemoizedDelegate}.
+    *
+    * @param getter the value getter
+    * @param setter the value setter, or {@code null} if the variable is read-only
+    * @param expiry how long a computed value is cached, or {@code null} if it's cached until it's invalidated
+    */
+   public MemoizedDelegate(Supplier<? extends T> getter, Consumer<? super T> setter, Duration expiry) {
+      if(expiry != null && (expiry.isNegative() || expiry.isZero())) {
+         throw new IllegalArgumentException("The expiry must be positive.");
+      }
+
+      this.getter = Objects.requireNonNull(getter);
+      this.setter = setter;
+      this.expiryNanos = expiry == null ? 0 : expiry.toNanos();
+   }
+
+   @Override
+   public T get() {
+      Cached<T> cached = this.cached;
+
+      if(cached == null || this.isExpired(cached)) {
+         synchronized(this.lock) {
+            cached = this.cached;
+            if(cached == null || this.isExpired(cached)) {
+               T value = this.getter.get();
+               cached = new Cached<>(value, this.expiryNanos == 0 ? 0 : System.nanoTime() + this.expiryNanos);
+               this.cached = cached;
+            }
+         }
+      }
+
+      return cached.value;
+   }
+
+   @Override
+   public void set(T value) {
+      if(this.setter == null) {
+         throw new RuntimeException("This variable is read-only.");
+      }
+
+      synchronized(this.lock) {
+         this.setter.accept(value);
+         this.cached = null;
+      }
+   }
+
+   @Override
+   public boolean isReadOnly() {
+      return this.setter == null;
+   }
+
+   @Override
+   public void invalidate() {
+      synchronized(this.lock) {
+         this.cached = null;
+      }
+   }
+
+   private boolean isExpired(Cached<T> cached) {
+      return this.expiryNanos != 0 && System.nanoTime() - cached.expiresAt >= 0;
+   }
+
+   private static final class Cached<T> {
+      private final T value;
+      private final long expiresAt;
+
+      private Cached(T value, long expiresAt) {
+         this.value = value;
+         this.expiresAt = expiresAt;
+      }
+   }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+/**
+ * The memory ordering of the writes made by an atomic stored delegate, e.g. {@link AtomicIntDelegate}.
+ *
+ * Reads always have acquire semantics and read-modify-write operations (such as {@code compareAndSet}) are always
+ * sequentially consistent; only plain writes differ.
+ */
+public enum MemoryOrder {
+   /**
+    * Writes are volatile: they're sequentially consistent with every other volatile access.
+    */
+   VOLATILE,
+
+   /**
+    * Writes have release semantics: everything the writing thread did before is visible to a thread that reads the
+    * value, but a later read by the writing thread of another variable may be reordered before the write. This avoids
+    * the full fence of a volatile write, which is usually all that's needed to publish a flag or a counter.
+    */
+   RELEASE
+}
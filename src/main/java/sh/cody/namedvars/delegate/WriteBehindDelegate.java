@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.delegate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+/**
+ * A {@link BufferedDelegate} which coalesces writes to another delegate whose setter is expensive, e.g. one that
+ * resizes a pool or writes to disk.
+ *
+ * A write only stores the value as pending, and {@link WriteBehindDelegate#get()} returns the pending value if there
+ * is one, so the variable reads its latest value immediately. Only the last pending value is passed on to the wrapped
+ * delegate, when {@link WriteBehindDelegate#flush()} is called or, if an interval is set, by a scheduled flush. The
+ * flush is scheduled by the first write after the previous flush and isn't postponed by further writes, so a value is
+ * passed on at most one interval (plus scheduling delay) after it was written, even during a continuous burst of
+ * writes.
+ *
+ * If the wrapped delegate fails, the value stays pending: {@link WriteBehindDelegate#flush()} rethrows the exception,
+ * while a failed scheduled flush passes it to the {@link WriteBehindDelegate#onError(Consumer) error handler} and is
+ * retried every interval until the value is passed on.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public final class WriteBehindDelegate<T> implements BufferedDelegate<T> {
+   private static final Object NONE = new Object();
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<WriteBehindDelegate, Object> PENDING =
+         AtomicReferenceFieldUpdater.newUpdater(WriteBehindDelegate.class, Object.class, "pending");
+
+   private final Delegate<T> delegate;
+   private final long intervalNanos;
+   private final ScheduledExecutorService scheduler;
+   private final AtomicBoolean scheduled = new AtomicBoolean();
+   private final Object flushLock = new Object();
+   private volatile Object pending = NONE;
+   private volatile Consumer<? super RuntimeException> errorHandler = exception -> { };
+
+   /**
+    * Constructs a new {@link WriteBehindDelegate} which only passes values on when it's flushed.
+    *
+    * @param delegate the wrapped delegate
+    */
+   public WriteBehindDelegate(Delegate<T> delegate) {
+      this(delegate, null, null);
+   }
+
+   /**
+    * Constructs a new {@link WriteBehindDelegate} which flushes on a shared daemon thread.
+    *
+    * @param delegate the wrapped delegate
+    * @param interval the longest time a value is pending
+    */
+   public WriteBehindDelegate(Delegate<T> delegate, Duration interval) {
+      this(delegate, Objects.requireNonNull(interval), Scheduler.INSTANCE);
+   }
+
+   /**
+    * Constructs a new {@link WriteBehindDelegate}.
+    *
+    * @param delegate the wrapped delegate
+    * @param interval the longest time a value is pending, or {@code null} to only pass values on when flushed
+    * @param scheduler the executor that runs the scheduled flushes, and so the wrapped delegate's setter
+    */
+   public WriteBehindDelegate(Delegate<T> delegate, Duration interval, ScheduledExecutorService scheduler) {
+      if(interval != null && (interval.isNegative() || interval.isZero())) {
+         throw new IllegalArgumentException("The interval must be positive.");
+      }
+
+      this.delegate = Objects.requireNonNull(delegate);
+      this.intervalNanos = interval == null ? 0 : interval.toNanos();
+      this.scheduler = interval == null ? null : Objects.requireNonNull(scheduler);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public T get() {
+      Object pending = this.pending;
+      return pending != NONE ? (T) pending : this.delegate.get();
+   }
+
+   @Override
+   public void set(T value) {
+      this.pending = value;
+
+      if(this.scheduler != null && this.scheduled.compareAndSet(false, true)) {
+         this.scheduler.schedule(this::scheduledFlush, this.intervalNanos, TimeUnit.NANOSECONDS);
+      }
+   }
+
+   @Override
+   public void flush() {
+      synchronized(this.flushLock) {
+         Object pending = this.pending;
+         if(pending == NONE) {
+            return;
+         }
+
+         @SuppressWarnings("unchecked")
+         T value = (T) pending;
+         this.delegate.set(value);
+
+         // a value written meanwhile stays pending; its write scheduled another flush.
+         PENDING.compareAndSet(this, pending, NONE);
+      }
+   }
+
+   /**
+    * Sets the handler for failures of the scheduled flushes.
+    *
+    * @param errorHandler the handler, which is called on the scheduler's thread
+    * @return this delegate
+    */
+   public WriteBehindDelegate<T> onError(Consumer<? super RuntimeException> errorHandler) {
+      this.errorHandler = Objects.requireNonNull(errorHandler);
+      return this;
+   }
+
+   /**
+    * Returns whether a written value hasn't been passed on to the wrapped delegate yet.
+    *
+    * @return whether a value is pending
+    */
+   public boolean isPending() {
+      return this.pending != NONE;
+   }
+
+   /**
+    * Returns the wrapped delegate.
+    *
+    * @return the wrapped delegate
+    */
+   public Delegate<T> getDelegate() {
+      return this.delegate;
+   }
+
+   private void scheduledFlush() {
+      // cleared first, so a write that this flush misses schedules another one.
+      this.scheduled.set(false);
+
+      try {
+         this.flush();
+      } catch(RuntimeException exception) {
+         // the value is still pending, unless a write scheduled another flush meanwhile.
+         if(this.scheduled.compareAndSet(false, true)) {
+            this.scheduler.schedule(this::scheduledFlush, this.intervalNanos, TimeUnit.NANOSECONDS);
+         }
+         this.errorHandler.accept(exception);
+      }
+   }
+
+   private static final class Scheduler {
+      private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+         Thread thread = new Thread(runnable, "WriteBehindDelegate");
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+}
@@ -26,4 +26,8 @@ public final class ScopeException extends Exception {
    public ScopeException(String message) {
       super(message);
    }
+
+   public ScopeException(String message, Throwable cause) {
+      super(message, cause);
+   }
 }
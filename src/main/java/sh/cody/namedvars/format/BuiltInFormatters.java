@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The formatters used by {@link SimpleFormatterProvider}. Each one produces the text its counterpart in
+ * {@code sh.cody.namedvars.parse.BuiltInParsers} accepts.
+ */
+final class BuiltInFormatters {
+   private BuiltInFormatters() {}
+
+   static final BooleanFormatter BOOLEAN = new BooleanFormatter() {
+      @Override
+      public void formatBoolean(boolean value, StringBuilder out) {
+         out.append(value);
+      }
+
+      @Override
+      public void formatBoolean(boolean value, ByteBuffer out) {
+         Scratch.putAscii(value ? "true" : "false", out);
+      }
+   };
+
+   static final IntFormatter INT = new IntFormatter() {
+      @Override
+      public void formatInt(int value, StringBuilder out) {
+         out.append(value);
+      }
+
+      @Override
+      public void formatInt(int value, ByteBuffer out) {
+         Scratch.putLong(value, out);
+      }
+   };
+
+   static final LongFormatter LONG = new LongFormatter() {
+      @Override
+      public void formatLong(long value, StringBuilder out) {
+         out.append(value);
+      }
+
+      @Override
+      public void formatLong(long value, ByteBuffer out) {
+         Scratch.putLong(value, out);
+      }
+   };
+
+   static final DoubleFormatter DOUBLE = (value, out) -> out.append(value);
+
+   static final Formatter<Float> FLOAT = (value, out) -> out.append((float) value);
+
+   static final Formatter<Number> INTEGRAL = (value, out) -> out.append(value.longValue());
+
+   static final Formatter<Character> CHAR = (value, out) -> out.append((char) value);
+
+   // an empty string parses as a null character.
+   static final Formatter<Character> NULLABLE_CHAR = (value, out) -> {
+      if(value != null) {
+         out.append((char) value);
+      }
+   };
+
+   static final Formatter<Enum<?>> ENUM = (value, out) -> out.append(value.name());
+
+   static final Formatter<Object> OBJECT = (value, out) -> out.append(value);
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import sh.cody.namedvars.parse.Delimiters;
+import java.util.*;
+
+/**
+ * Formatters of collections, maps and arrays, the counterparts of {@link sh.cody.namedvars.parse.CollectionParsers}.
+ *
+ * Elements are separated by the separator followed by a space, e.g. {@code "80, 443, 8080"}. Each element is formatted
+ * directly into the output; delimiters and escape characters inside it, as well as whitespace at its start or end, are
+ * escaped so that the matching parser reads back the same elements. A single empty element is written as {@code ""},
+ * since empty text is an empty collection, and an element which is literally {@code ""} is escaped. Primitive array
+ * elements are appended without boxing them.
+ *
+ * @see Delimiters
+ */
+public final class CollectionFormatters {
+   private CollectionFormatters() {}
+
+   public static <T, C extends Collection<? extends T>> Formatter<C> collection(Formatter<? super T> element) {
+      return collection(element, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a formatter of collections, which formats the elements in iteration order.
+    *
+    * @param element the formatter of the elements
+    * @param delimiters the delimiters
+    * @param <T> the type of the elements
+    * @param <C> the type of the collections
+    * @return a formatter of collections
+    */
+   public static <T, C extends Collection<? extends T>> Formatter<C> collection(Formatter<? super T> element,
+                                                                                Delimiters delimiters) {
+      Objects.requireNonNull(element);
+      Objects.requireNonNull(delimiters);
+
+      return (collection, out) -> {
+         int start = out.length();
+         boolean first = true;
+         for(T value : collection) {
+            first = separate(first, out, delimiters);
+            append(element, value, out, delimiters);
+         }
+
+         quoteEmpty(!first, start, out);
+      };
+   }
+
+   public static <K, V, M extends Map<? extends K, ? extends V>> Formatter<M> map(Formatter<? super K> key,
+                                                                                  Formatter<? super V> value) {
+      return map(key, value, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a formatter of maps, which formats the entries in iteration order.
+    *
+    * @param key the formatter of the keys
+    * @param value the formatter of the values
+    * @param delimiters the delimiters
+    * @param <K> the type of the keys
+    * @param <V> the type of the values
+    * @param <M> the type of the maps
+    * @return a formatter of maps
+    */
+   public static <K, V, M extends Map<? extends K, ? extends V>> Formatter<M> map(Formatter<? super K> key,
+                                                                                  Formatter<? super V> value,
+                                                                                  Delimiters delimiters) {
+      Objects.requireNonNull(key);
+      Objects.requireNonNull(value);
+      Objects.requireNonNull(delimiters);
+
+      return (map, out) -> {
+         boolean first = true;
+         for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            first = separate(first, out, delimiters);
+            append(key, entry.getKey(), out, delimiters);
+            out.append(delimiters.getKeyValueSeparator());
+            append(value, entry.getValue(), out, delimiters);
+         }
+      };
+   }
+
+   /**
+    * Creates a formatter of object arrays.
+    *
+    * @param element the formatter of the elements
+    * @param delimiters the delimiters
+    * @param <T> the type of the elements
+    * @return a formatter of arrays
+    */
+   public static <T> Formatter<T[]> array(Formatter<? super T> element, Delimiters delimiters) {
+      Objects.requireNonNull(element);
+      Objects.requireNonNull(delimiters);
+
+      return (array, out) -> {
+         int start = out.length();
+         for(int i = 0; i < array.length; ++i) {
+            separate(i == 0, out, delimiters);
+            append(element, array[i], out, delimiters);
+         }
+
+         quoteEmpty(array.length > 0, start, out);
+      };
+   }
+
+   public static Formatter<int[]> intArray(Delimiters delimiters) {
+      Objects.requireNonNull(delimiters);
+
+      return (array, out) -> {
+         for(int i = 0; i < array.length; ++i) {
+            separate(i == 0, out, delimiters);
+            out.append(array[i]);
+         }
+      };
+   }
+
+   public static Formatter<long[]> longArray(Delimiters delimiters) {
+      Objects.requireNonNull(delimiters);
+
+      return (array, out) -> {
+         for(int i = 0; i < array.length; ++i) {
+            separate(i == 0, out, delimiters);
+            out.append(array[i]);
+         }
+      };
+   }
+
+   public static Formatter<double[]> doubleArray(Delimiters delimiters) {
+      Objects.requireNonNull(delimiters);
+
+      return (array, out) -> {
+         for(int i = 0; i < array.length; ++i) {
+            separate(i == 0, out, delimiters);
+            out.append(array[i]);
+         }
+      };
+   }
+
+   private static boolean separate(boolean first, StringBuilder out, Delimiters delimiters) {
+      if(!first) {
+         out.append(delimiters.getSeparator()).append(' ');
+      }
+
+      return false;
+   }
+
+   private static void quoteEmpty(boolean hasElements, int start, StringBuilder out) {
+      // only a single empty element formats to nothing, which would read back as no elements at all.
+      if(hasElements && out.length() == start) {
+         out.append("\"\"");
+      }
+   }
+
+   private static <T> void append(Formatter<? super T> formatter, T value, StringBuilder out, Delimiters delimiters) {
+      int start = out.length();
+      formatter.format(value, out);
+      int end = out.length();
+
+      int i = start;
+      while(i < end && !needsEscape(out, i, start, end, delimiters)) {
+         ++i;
+      }
+
+      if(i == end) {
+         return;
+      }
+
+      // only the part from the first character that needs escaping on is rewritten.
+      int rewritten = i;
+      StringBuilder tail = Scratch.acquire();
+      try {
+         for(; i < end; ++i) {
+            if(needsEscape(out, i, start, end, delimiters)) {
+               tail.append(delimiters.getEscape());
+            }
+
+            tail.append(out.charAt(i));
+         }
+
+         out.setLength(rewritten);
+         out.append(tail);
+      } finally {
+         Scratch.release(tail);
+      }
+   }
+
+   private static boolean needsEscape(CharSequence seq, int i, int start, int end, Delimiters delimiters) {
+      char c = seq.charAt(i);
+      return c == delimiters.getSeparator() || c == delimiters.getKeyValueSeparator() || c == delimiters.getEscape()
+            || (Character.isWhitespace(c) && (i == start || i == end - 1))
+            || (c == '"' && i == start && end - start == 2 && seq.charAt(start + 1) == '"');
+   }
+}
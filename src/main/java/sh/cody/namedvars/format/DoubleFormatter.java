@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Formatter} that can format double values without boxing them.
+ *
+ * {@link sh.cody.namedvars.Variable#format(StringBuilder)} and its overloads use these methods directly when a
+ * variable's delegate is a {@link sh.cody.namedvars.delegate.DoubleDelegate}.
+ */
+@FunctionalInterface
+public interface DoubleFormatter extends Formatter<Double> {
+   void formatDouble(double value, StringBuilder out);
+
+   default void formatDouble(double value, Appendable out) throws IOException {
+      if(out instanceof StringBuilder) {
+         this.formatDouble(value, (StringBuilder) out);
+         return;
+      }
+
+      StringBuilder builder = Scratch.acquire();
+      try {
+         this.formatDouble(value, builder);
+         out.append(builder);
+      } finally {
+         Scratch.release(builder);
+      }
+   }
+
+   default void formatDouble(double value, ByteBuffer out) {
+      StringBuilder builder = Scratch.acquire();
+      try {
+         this.formatDouble(value, builder);
+         Scratch.putUtf8(builder, out);
+      } finally {
+         Scratch.release(builder);
+      }
+   }
+
+   @Override
+   default void format(Double value, StringBuilder out) {
+      this.formatDouble(value, out);
+   }
+}
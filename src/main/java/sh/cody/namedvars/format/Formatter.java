@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts a variable's value into text, the counterpart of {@link sh.cody.namedvars.parse.Parser}.
+ *
+ * Only {@link Formatter#format(Object, StringBuilder)} has to be implemented; the overloads writing to an
+ * {@link Appendable} or a {@link ByteBuffer} format into a reused per-thread builder by default, so formatting doesn't
+ * allocate an intermediate {@link String}. The built-in formatters produce text that the matching built-in parser
+ * parses back into an equal value.
+ *
+ * @param <T> the type of the formatted value
+ */
+@FunctionalInterface
+public interface Formatter<T> {
+   void format(T value, StringBuilder out);
+
+   /**
+    * Appends a value to an {@link Appendable}.
+    *
+    * @param value the value
+    * @param out the appendable
+    * @throws IOException the appendable failed
+    */
+   default void format(T value, Appendable out) throws IOException {
+      if(out instanceof StringBuilder) {
+         this.format(value, (StringBuilder) out);
+         return;
+      }
+
+      StringBuilder builder = Scratch.acquire();
+      try {
+         this.format(value, builder);
+         out.append(builder);
+      } finally {
+         Scratch.release(builder);
+      }
+   }
+
+   /**
+    * Writes a value to a buffer as UTF-8, starting at the buffer's position, which is advanced past the written bytes.
+    *
+    * @param value the value
+    * @param out the buffer
+    * @throws java.nio.BufferOverflowException the buffer doesn't have enough space remaining; its position is
+    *                                          unspecified
+    */
+   default void format(T value, ByteBuffer out) {
+      StringBuilder builder = Scratch.acquire();
+      try {
+         this.format(value, builder);
+         Scratch.putUtf8(builder, out);
+      } finally {
+         Scratch.release(builder);
+      }
+   }
+
+   /**
+    * Formats a value as a {@link String}.
+    *
+    * @param value the value
+    * @return the text
+    */
+   default String format(T value) {
+      StringBuilder builder = Scratch.acquire();
+      try {
+         this.format(value, builder);
+         return builder.toString();
+      } finally {
+         Scratch.release(builder);
+      }
+   }
+
+   static <T> Formatter<T> nullChecked(Formatter<T> formatter) {
+      return (value, out) -> {
+         if(value == null) {
+            out.append("null");
+         } else {
+            formatter.format(value, out);
+         }
+      };
+   }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import java.util.function.Function;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public abstract class FormatterProvider {
+   public abstract <T> Formatter<T> match(Class<T> type);
+
+   protected static <T> Formatter<T> matcher(Class<T> type, Function<Class, Formatter>... functions) {
+      for(Function<Class, Formatter> function : functions) {
+         Formatter<T> formatter = function.apply(type);
+         if(formatter != null) {
+            return formatter;
+         }
+      }
+
+      return null;
+   }
+
+   protected static <T> Function<Class, Formatter> formatterFor(Class<T> formatterType, Formatter<? super T> formatter) {
+      return type -> formatterType.isAssignableFrom(type) ? formatter : null;
+   }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Per-thread builders which formatters use as intermediate storage, and the conversion of formatted text to bytes.
+ */
+final class Scratch {
+   private static final int MAX_RETAINED_CAPACITY = 8192;
+   private static final ThreadLocal<StringBuilder> BUILDERS = new ThreadLocal<>();
+
+   private Scratch() {}
+
+   /**
+    * Takes the current thread's builder, or creates a new one if it is already in use (e.g. by an enclosing
+    * formatter), and empties it.
+    */
+   static StringBuilder acquire() {
+      StringBuilder builder = BUILDERS.get();
+      if(builder == null) {
+         return new StringBuilder(64);
+      }
+
+      BUILDERS.set(null);
+      builder.setLength(0);
+      return builder;
+   }
+
+   static void release(StringBuilder builder) {
+      // don't pin the memory of an exceptionally long value to the thread.
+      if(builder.capacity() <= MAX_RETAINED_CAPACITY) {
+         BUILDERS.set(builder);
+      }
+   }
+
+   static void putUtf8(CharSequence seq, ByteBuffer out) {
+      for(int i = 0, length = seq.length(); i < length; ++i) {
+         char c = seq.charAt(i);
+
+         if(c < 0x80) {
+            out.put((byte) c);
+         } else if(c < 0x800) {
+            require(out, 2);
+            out.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+         } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(seq.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+            require(out, 4);
+            out.put((byte) (0xf0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3f))
+                  .put((byte) (0x80 | codePoint >> 6 & 0x3f)).put((byte) (0x80 | codePoint & 0x3f));
+         } else if(Character.isSurrogate(c)) {
+            // like String.getBytes, an unpaired surrogate is replaced with '?'.
+            out.put((byte) '?');
+         } else {
+            require(out, 3);
+            out.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+         }
+      }
+   }
+
+   private static void require(ByteBuffer out, int bytes) {
+      // a multi-byte sequence is never written partially.
+      if(out.remaining() < bytes) {
+         throw new BufferOverflowException();
+      }
+   }
+
+   /**
+    * Writes the decimal digits of a value as ASCII, which is what {@link StringBuilder#append(long)} produces.
+    */
+   static void putLong(long value, ByteBuffer out) {
+      if(value == Long.MIN_VALUE) {
+         putAscii("-9223372036854775808", out);
+         return;
+      }
+
+      if(value < 0) {
+         out.put((byte) '-');
+         value = -value;
+      }
+
+      int digits = 1;
+      for(long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+         ++digits;
+      }
+
+      if(out.remaining() < digits) {
+         throw new BufferOverflowException();
+      }
+
+      int position = out.position();
+      for(int i = position + digits - 1; i >= position; --i) {
+         out.put(i, (byte) ('0' + value % 10));
+         value /= 10;
+      }
+      out.position(position + digits);
+   }
+
+   static void putAscii(String str, ByteBuffer out) {
+      if(out.remaining() < str.length()) {
+         throw new BufferOverflowException();
+      }
+
+      for(int i = 0; i < str.length(); ++i) {
+         out.put((byte) str.charAt(i));
+      }
+   }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.format;
+
+import sh.cody.namedvars.parse.Delimiters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default {@link FormatterProvider}, the counterpart of {@link sh.cody.namedvars.parse.SimpleParserProvider}.
+ *
+ * Primitives, their boxed types, {@link String} and enums are formatted so that the default parser parses the text
+ * back into an equal value; {@code null} is formatted as {@code "null"}, except for {@link Character} where it's
+ * formatted as an empty string. Collections, maps and {@code int}, {@code long}, {@code double} and object arrays are
+ * formatted by {@link CollectionFormatters} with the default delimiters, with their elements formatted by
+ * {@link String#valueOf(Object)}. Every other class is formatted with {@link String#valueOf(Object)}. Like parsers, the
+ * built-in formatter of each class is cached for the lifetime of the class and registered formatters take precedence.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class SimpleFormatterProvider extends FormatterProvider {
+   private static final ClassValue<Formatter<?>> BUILT_IN_FORMATTERS = new ClassValue<Formatter<?>>() {
+      @Override
+      protected Formatter<?> computeValue(Class<?> type) {
+         return builtIn(type);
+      }
+   };
+
+   private final Map<Class<?>, Formatter<?>> registeredFormatters = new ConcurrentHashMap<>();
+
+   /**
+    * Registers a formatter for a class, replacing any formatter previously registered for it.
+    *
+    * The formatter is only matched to exactly this class. Variables that were already created keep the formatter they
+    * were created with.
+    *
+    * @param type the class
+    * @param formatter the formatter
+    * @param <T> the class' type
+    * @return this provider
+    */
+   public <T> SimpleFormatterProvider register(Class<T> type, Formatter<T> formatter) {
+      this.registeredFormatters.put(type, formatter);
+      return this;
+   }
+
+   @Override
+   public <T> Formatter<T> match(Class<T> type) {
+      Formatter<?> formatter = this.registeredFormatters.get(type);
+      return (Formatter<T>) (formatter != null ? formatter : BUILT_IN_FORMATTERS.get(type));
+   }
+
+   private static <T> Formatter<T> builtIn(Class<T> type) {
+      return matcher(type,
+            formatterFor(boolean.class, BuiltInFormatters.BOOLEAN),
+            formatterFor(byte.class, BuiltInFormatters.INTEGRAL),
+            formatterFor(short.class, BuiltInFormatters.INTEGRAL),
+            formatterFor(char.class, BuiltInFormatters.CHAR),
+            formatterFor(int.class, BuiltInFormatters.INT),
+            formatterFor(long.class, BuiltInFormatters.LONG),
+            formatterFor(float.class, BuiltInFormatters.FLOAT),
+            formatterFor(double.class, BuiltInFormatters.DOUBLE),
+            formatterFor(Boolean.class, Formatter.nullChecked(BuiltInFormatters.BOOLEAN)),
+            formatterFor(Byte.class, Formatter.nullChecked(BuiltInFormatters.INTEGRAL)),
+            formatterFor(Short.class, Formatter.nullChecked(BuiltInFormatters.INTEGRAL)),
+            formatterFor(Character.class, BuiltInFormatters.NULLABLE_CHAR),
+            formatterFor(Integer.class, Formatter.nullChecked(BuiltInFormatters.INT)),
+            formatterFor(Long.class, Formatter.nullChecked(BuiltInFormatters.LONG)),
+            formatterFor(Float.class, Formatter.nullChecked(BuiltInFormatters.FLOAT)),
+            formatterFor(Double.class, Formatter.nullChecked(BuiltInFormatters.DOUBLE)),
+            formatterFor(Enum.class, Formatter.nullChecked((Formatter) BuiltInFormatters.ENUM)),
+            formatterFor(Collection.class,
+                  Formatter.nullChecked(CollectionFormatters.collection(BuiltInFormatters.OBJECT))),
+            formatterFor(Map.class, Formatter.nullChecked(CollectionFormatters.map(BuiltInFormatters.OBJECT,
+                  BuiltInFormatters.OBJECT))),
+            formatterFor(int[].class, Formatter.nullChecked(CollectionFormatters.intArray(Delimiters.DEFAULT))),
+            formatterFor(long[].class, Formatter.nullChecked(CollectionFormatters.longArray(Delimiters.DEFAULT))),
+            formatterFor(double[].class, Formatter.nullChecked(CollectionFormatters.doubleArray(Delimiters.DEFAULT))),
+            formatterFor(Object[].class, Formatter.nullChecked(CollectionFormatters.array(BuiltInFormatters.OBJECT,
+                  Delimiters.DEFAULT))),
+            formatterFor(Object.class, BuiltInFormatters.OBJECT)
+      );
+   }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * A single pass reader of RFC 4180 comma separated values whose header row names a {@code name} and a {@code value}
+ * column, as written by {@link ScopeExporter} in the {@link ScopeFormat#CSV} format.
+ *
+ * Only one record is held in memory at a time. Each record's value is handed to the {@link PropertiesReader.Handler}
+ * as a range of a reused buffer; an empty unquoted value is handed over as a {@code null} sequence. Blank lines are
+ * skipped.
+ */
+final class CsvReader {
+   private static final int BUFFER_SIZE = 8192;
+
+   private final char[] buffer = new char[BUFFER_SIZE];
+   private final StringBuilder record = new StringBuilder();
+   private int[] fieldEnds = new int[8];
+   private boolean[] fieldQuoted = new boolean[8];
+   private int fieldCount;
+   private Reader reader;
+   private int position;
+   private int limit;
+   private int lineNumber;
+
+   /**
+    * Reads every record of a stream. The reader isn't closed.
+    *
+    * @param reader a reader
+    * @param handler the record handler
+    * @throws IOException the reader failed
+    * @throws ScopeException the header has no {@code name} or {@code value} column, a record is too short, or the
+    *                        handler rejected a record
+    */
+   void read(Reader reader, PropertiesReader.Handler handler) throws IOException, ScopeException {
+      this.reader = reader;
+      this.position = this.limit = 0;
+      this.lineNumber = 1;
+
+      if(!this.readRecord()) {
+         return;
+      }
+
+      int nameColumn = -1, valueColumn = -1;
+      for(int i = 0; i < this.fieldCount; ++i) {
+         if(this.fieldEquals(i, "name")) {
+            nameColumn = i;
+         } else if(this.fieldEquals(i, "value")) {
+            valueColumn = i;
+         }
+      }
+
+      if(nameColumn < 0 || valueColumn < 0) {
+         throw new ScopeException("The CSV header must name a 'name' and a 'value' column.");
+      }
+
+      int recordLineNumber = this.lineNumber;
+      while(this.readRecord()) {
+         if(this.fieldCount == 1 && this.fieldEnds[0] == 0 && !this.fieldQuoted[0]) {
+            recordLineNumber = this.lineNumber;
+            continue;
+         }
+
+         if(this.fieldCount <= Math.max(nameColumn, valueColumn)) {
+            throw new ScopeException("The CSV record on line " + recordLineNumber + " is missing columns.");
+         }
+
+         String name = this.record.substring(this.fieldStart(nameColumn), this.fieldEnds[nameColumn]);
+         int start = this.fieldStart(valueColumn), end = this.fieldEnds[valueColumn];
+
+         if(start == end && !this.fieldQuoted[valueColumn]) {
+            handler.entry(name, null, 0, 0, recordLineNumber);
+         } else {
+            handler.entry(name, this.record, start, end, recordLineNumber);
+         }
+
+         recordLineNumber = this.lineNumber;
+      }
+   }
+
+   private int fieldStart(int field) {
+      return field == 0 ? 0 : this.fieldEnds[field - 1];
+   }
+
+   private boolean fieldEquals(int field, String str) {
+      int start = this.fieldStart(field);
+      return this.fieldEnds[field] - start == str.length() && this.record.indexOf(str, start) == start;
+   }
+
+   /**
+    * Reads the next record into {@link CsvReader#record}, whose fields are stored back to back.
+    *
+    * @return {@code false} if the stream has ended
+    */
+   private boolean readRecord() throws IOException {
+      this.record.setLength(0);
+      this.fieldCount = 0;
+
+      int c = this.next();
+      if(c == -1) {
+         return false;
+      }
+
+      boolean quoted = false;
+      while(true) {
+         if(c == '"' && !quoted && this.fieldStart(this.fieldCount) == this.record.length()) {
+            quoted = true;
+
+            // a doubled quote is a literal quote, any other quote ends the quoted section.
+            while((c = this.next()) != -1) {
+               if(c == '"') {
+                  if(this.peek() != '"') {
+                     break;
+                  }
+                  this.next();
+               }
+               this.record.append((char) c);
+            }
+
+            c = this.next();
+            continue;
+         }
+
+         if(c == ',' || c == '\n' || c == '\r' || c == -1) {
+            this.endField(quoted);
+            quoted = false;
+
+            if(c == '\r' && this.peek() == '\n') {
+               this.next();
+            }
+            if(c != ',') {
+               return true;
+            }
+         } else {
+            this.record.append((char) c);
+         }
+
+         c = this.next();
+      }
+   }
+
+   private void endField(boolean quoted) {
+      if(this.fieldCount == this.fieldEnds.length) {
+         this.fieldEnds = Arrays.copyOf(this.fieldEnds, this.fieldCount * 2);
+         this.fieldQuoted = Arrays.copyOf(this.fieldQuoted, this.fieldCount * 2);
+      }
+
+      this.fieldEnds[this.fieldCount] = this.record.length();
+      this.fieldQuoted[this.fieldCount++] = quoted;
+   }
+
+   private int next() throws IOException {
+      if(this.position == this.limit && !this.fill()) {
+         return -1;
+      }
+
+      char c = this.buffer[this.position++];
+      if(c == '\n') {
+         ++this.lineNumber;
+      }
+      return c;
+   }
+
+   private int peek() throws IOException {
+      if(this.position == this.limit && !this.fill()) {
+         return -1;
+      }
+
+      return this.buffer[this.position];
+   }
+
+   private boolean fill() throws IOException {
+      int count = this.reader.read(this.buffer);
+      if(count <= 0) {
+         return false;
+      }
+
+      this.position = 0;
+      this.limit = count;
+      return true;
+   }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+
+/**
+ * A single pass reader of a JSON object whose members are scalars, i.e. strings, numbers, booleans or {@code null}, as
+ * written by {@link ScopeExporter} in the {@link ScopeFormat#JSON} format.
+ *
+ * Each member's value is handed to the {@link PropertiesReader.Handler} as a range of a reused buffer: strings
+ * unescaped and other literals as written. A {@code null} literal is handed over as a {@code null} sequence.
+ */
+final class JsonReader {
+   private static final int BUFFER_SIZE = 8192;
+
+   private final char[] buffer = new char[BUFFER_SIZE];
+   private final StringBuilder key = new StringBuilder();
+   private final StringBuilder value = new StringBuilder();
+   private Reader reader;
+   private int position;
+   private int limit;
+   private int lineNumber;
+
+   /**
+    * Reads every member of a stream. The reader isn't closed.
+    *
+    * @param reader a reader
+    * @param handler the member handler
+    * @throws IOException the reader failed
+    * @throws ScopeException the stream isn't a JSON object of scalars, or the handler rejected a member
+    */
+   void read(Reader reader, PropertiesReader.Handler handler) throws IOException, ScopeException {
+      this.reader = reader;
+      this.position = this.limit = 0;
+      this.lineNumber = 1;
+
+      this.expect('{');
+      int c = this.skipWhitespace();
+
+      if(c != '}') {
+         while(true) {
+            if(c != '"') {
+               throw this.malformed("expected a member name");
+            }
+
+            this.readString(this.key);
+            this.expect(':');
+            int valueLineNumber = this.lineNumber;
+
+            c = this.skipWhitespace();
+            if(c == '"') {
+               this.readString(this.value);
+               handler.entry(this.key.toString(), this.value, 0, this.value.length(), valueLineNumber);
+            } else if(c == '{' || c == '[') {
+               throw this.malformed("nested objects and arrays aren't supported");
+            } else {
+               this.readLiteral(c);
+               if("null".contentEquals(this.value)) {
+                  handler.entry(this.key.toString(), null, 0, 0, valueLineNumber);
+               } else {
+                  handler.entry(this.key.toString(), this.value, 0, this.value.length(), valueLineNumber);
+               }
+            }
+
+            c = this.skipWhitespace();
+            if(c == '}') {
+               break;
+            } else if(c != ',') {
+               throw this.malformed("expected ',' or '}'");
+            }
+
+            c = this.skipWhitespace();
+         }
+      }
+
+      if(this.skipWhitespace() != -1) {
+         throw this.malformed("unexpected content after the object");
+      }
+   }
+
+   private int next() throws IOException {
+      if(this.position == this.limit && !this.fill()) {
+         return -1;
+      }
+
+      char c = this.buffer[this.position++];
+      if(c == '\n') {
+         ++this.lineNumber;
+      }
+      return c;
+   }
+
+   private int peek() throws IOException {
+      if(this.position == this.limit && !this.fill()) {
+         return -1;
+      }
+
+      return this.buffer[this.position];
+   }
+
+   private boolean fill() throws IOException {
+      int count = this.reader.read(this.buffer);
+      if(count <= 0) {
+         return false;
+      }
+
+      this.position = 0;
+      this.limit = count;
+      return true;
+   }
+
+   private int skipWhitespace() throws IOException {
+      int c;
+      do {
+         c = this.next();
+      } while(c == ' ' || c == '\t' || c == '\n' || c == '\r');
+      return c;
+   }
+
+   private void expect(char expected) throws IOException, ScopeException {
+      if(this.skipWhitespace() != expected) {
+         throw this.malformed("expected '" + expected + "'");
+      }
+   }
+
+   private void readString(StringBuilder out) throws IOException, ScopeException {
+      out.setLength(0);
+
+      while(true) {
+         int c = this.next();
+
+         if(c == -1) {
+            throw this.malformed("unterminated string");
+         } else if(c == '"') {
+            return;
+         } else if(c != '\\') {
+            out.append((char) c);
+            continue;
+         }
+
+         c = this.next();
+         switch(c) {
+            case '"': case '\\': case '/': out.append((char) c); break;
+            case 'b': out.append('\b'); break;
+            case 'f': out.append('\f'); break;
+            case 'n': out.append('\n'); break;
+            case 'r': out.append('\r'); break;
+            case 't': out.append('\t'); break;
+            case 'u':
+               int code = 0;
+               for(int i = 0; i < 4; ++i) {
+                  int digit = Character.digit(this.next(), 16);
+                  if(digit < 0) {
+                     throw this.malformed("malformed \\uxxxx escape");
+                  }
+
+                  code = (code << 4) | digit;
+               }
+               out.append((char) code);
+               break;
+            default:
+               throw this.malformed("invalid escape sequence");
+         }
+      }
+   }
+
+   private void readLiteral(int c) throws IOException, ScopeException {
+      if(!isLiteralChar(c)) {
+         throw this.malformed("expected a value");
+      }
+
+      this.value.setLength(0);
+      this.value.append((char) c);
+
+      while(isLiteralChar(c = this.peek())) {
+         this.value.append((char) c);
+         ++this.position;
+      }
+   }
+
+   private static boolean isLiteralChar(int c) {
+      return c == '-' || c == '+' || c == '.' || c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+   }
+
+   private ScopeException malformed(String reason) {
+      return new ScopeException("Malformed JSON on line " + this.lineNumber + ": " + reason + ".");
+   }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+
+/**
+ * A single pass reader of the {@link java.util.Properties} text format (i.e. {@code key=value}, {@code key: value} or
+ * {@code key value} entries, {@code #} and {@code !} comments, escape sequences and line continuations).
+ *
+ * Only one logical line is held in memory at a time, and values are handed to the {@link Handler} as a range of a
+ * reused buffer, so no string is created for a value unless the handler creates one.
+ */
+final class PropertiesReader {
+   private static final int BUFFER_SIZE = 8192;
+
+   private final char[] buffer = new char[BUFFER_SIZE];
+   private final StringBuilder line = new StringBuilder();
+   private final StringBuilder unescaped = new StringBuilder();
+
+   /**
+    * Receives the entries of a properties stream.
+    */
+   interface Handler {
+      /**
+       * Called for every entry in order of appearance.
+       *
+       * @param key the unescaped key
+       * @param value a sequence containing the unescaped value
+       * @param start the index of the value's first character
+       * @param end the index after the value's last character
+       * @param lineNumber the line the entry starts on
+       * @throws ScopeException the entry can't be applied
+       */
+      void entry(String key, CharSequence value, int start, int end, int lineNumber) throws ScopeException;
+   }
+
+   /**
+    * Reads every entry of a stream. The reader isn't closed.
+    *
+    * @param reader a reader
+    * @param handler the entry handler
+    * @throws IOException the reader failed
+    * @throws ScopeException the handler rejected an entry
+    */
+   void read(Reader reader, Handler handler) throws IOException, ScopeException {
+      int lineNumber = 1;
+      int entryLineNumber = 1;
+      boolean skipWhitespace = true;
+      boolean comment = false;
+      boolean continuation = false;
+      boolean precedingCarriageReturn = false;
+      int count;
+
+      this.line.setLength(0);
+
+      while((count = reader.read(this.buffer)) != -1) {
+         for(int i = 0; i < count; ++i) {
+            char c = this.buffer[i];
+
+            if(c == '\n' && precedingCarriageReturn) {
+               precedingCarriageReturn = false;
+               continue;
+            }
+
+            precedingCarriageReturn = c == '\r';
+
+            if(c == '\n' || c == '\r') {
+               ++lineNumber;
+
+               if(comment) {
+                  comment = false;
+               } else if(endsWithContinuation(this.line)) {
+                  this.line.setLength(this.line.length() - 1);
+                  continuation = true;
+               } else {
+                  // a continuation followed by a blank line ends the entry too.
+                  continuation = false;
+                  this.dispatch(handler, entryLineNumber);
+               }
+
+               skipWhitespace = true;
+               continue;
+            }
+
+            if(skipWhitespace) {
+               if(c == ' ' || c == '\t' || c == '\f') {
+                  continue;
+               }
+
+               skipWhitespace = false;
+
+               if(!continuation) {
+                  entryLineNumber = lineNumber;
+                  comment = c == '#' || c == '!';
+               }
+
+               continuation = false;
+            }
+
+            if(!comment) {
+               this.line.append(c);
+            }
+         }
+      }
+
+      if(!comment) {
+         if(endsWithContinuation(this.line)) {
+            this.line.setLength(this.line.length() - 1);
+         }
+
+         this.dispatch(handler, entryLineNumber);
+      }
+   }
+
+   private void dispatch(Handler handler, int lineNumber) throws ScopeException {
+      int length = this.line.length();
+      if(length == 0) {
+         return;
+      }
+
+      int keyEnd = 0;
+      boolean keyEscaped = false;
+
+      while(keyEnd < length) {
+         char c = this.line.charAt(keyEnd);
+         if(c == '\\') {
+            keyEscaped = true;
+            keyEnd += 2;
+         } else if(c == '=' || c == ':' || c == ' ' || c == '\t' || c == '\f') {
+            break;
+         } else {
+            ++keyEnd;
+         }
+      }
+
+      keyEnd = Math.min(keyEnd, length);
+      int valueStart = keyEnd;
+
+      while(valueStart < length && isWhitespace(this.line.charAt(valueStart))) {
+         ++valueStart;
+      }
+
+      if(valueStart < length && (this.line.charAt(valueStart) == '=' || this.line.charAt(valueStart) == ':')) {
+         ++valueStart;
+
+         while(valueStart < length && isWhitespace(this.line.charAt(valueStart))) {
+            ++valueStart;
+         }
+      }
+
+      String key = keyEscaped ? this.unescape(0, keyEnd).toString() : this.line.substring(0, keyEnd);
+
+      if(this.line.indexOf("\\", valueStart) == -1) {
+         handler.entry(key, this.line, valueStart, length, lineNumber);
+      } else {
+         StringBuilder value = this.unescape(valueStart, length);
+         handler.entry(key, value, 0, value.length(), lineNumber);
+      }
+
+      this.line.setLength(0);
+   }
+
+   private StringBuilder unescape(int start, int end) {
+      this.unescaped.setLength(0);
+
+      for(int i = start; i < end; ++i) {
+         char c = this.line.charAt(i);
+
+         if(c != '\\' || i + 1 == end) {
+            this.unescaped.append(c);
+            continue;
+         }
+
+         c = this.line.charAt(++i);
+
+         switch(c) {
+            case 't': this.unescaped.append('\t'); break;
+            case 'n': this.unescaped.append('\n'); break;
+            case 'r': this.unescaped.append('\r'); break;
+            case 'f': this.unescaped.append('\f'); break;
+            case 'u':
+               if(i + 4 >= end) {
+                  throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+               }
+
+               int code = 0;
+               for(int j = i + 1; j <= i + 4; ++j) {
+                  int digit = Character.digit(this.line.charAt(j), 16);
+                  if(digit < 0) {
+                     throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                  }
+
+                  code = (code << 4) | digit;
+               }
+
+               this.unescaped.append((char) code);
+               i += 4;
+               break;
+            default: this.unescaped.append(c);
+         }
+      }
+
+      return this.unescaped;
+   }
+
+   private static boolean endsWithContinuation(CharSequence line) {
+      int backslashes = 0;
+      for(int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; --i) {
+         ++backslashes;
+      }
+
+      return backslashes % 2 == 1;
+   }
+
+   private static boolean isWhitespace(char c) {
+      return c == ' ' || c == '\t' || c == '\f';
+   }
+}
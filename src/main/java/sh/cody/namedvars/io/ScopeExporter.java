@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.format.Formatter;
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Writes the variables of a {@link Scope} as text in one of the {@link ScopeFormat}s, which {@link ScopeLoader} can
+ * read back.
+ *
+ * Variables are written one at a time: each value is formatted by the variable's
+ * {@link sh.cody.namedvars.format.Formatter} into a reused builder, escaped into a second reused builder and handed to
+ * the output in a single write, so memory use is bounded by the largest entry rather than the size of the scope.
+ * Each value is read once, but values are read individually, so updates made while exporting may or may not be
+ * included. Read-only variables (see {@link Variable#isReadOnly()}) aren't
+ * exported, since they can't be loaded.
+ */
+public final class ScopeExporter {
+   private final Scope scope;
+   private ScopeFormat format = ScopeFormat.PROPERTIES;
+   private String namePattern;
+   private Set<Class<?>> types;
+   private Predicate<? super Variable<?>> filter;
+   private boolean descriptions = true;
+
+   private final StringBuilder value = new StringBuilder();
+   private final StringBuilder entry = new StringBuilder();
+   private char[] chars = new char[256];
+
+   /**
+    * Constructs a new {@link ScopeExporter} which writes every variable in the {@link ScopeFormat#PROPERTIES} format.
+    *
+    * @param scope the scope to export
+    */
+   public ScopeExporter(Scope scope) {
+      this.scope = Objects.requireNonNull(scope);
+   }
+
+   /**
+    * Sets the format to write.
+    *
+    * @param format the format
+    * @return this exporter
+    */
+   public ScopeExporter format(ScopeFormat format) {
+      this.format = Objects.requireNonNull(format);
+      return this;
+   }
+
+   /**
+    * Only exports variables whose names match a glob pattern, see {@link Scope#glob(String)}. Variables are then
+    * written in order of their names rather than in the order they were added.
+    *
+    * @param pattern the pattern or {@code null} to export variables of any name
+    * @return this exporter
+    */
+   public ScopeExporter names(String pattern) {
+      this.namePattern = pattern;
+      return this;
+   }
+
+   /**
+    * Only exports variables of one of a number of types.
+    *
+    * @param types the types; if none are given, variables of any type are exported
+    * @return this exporter
+    */
+   public ScopeExporter types(Class<?>... types) {
+      this.types = types.length == 0 ? null : new HashSet<>(Arrays.asList(types));
+      return this;
+   }
+
+   /**
+    * Only exports variables accepted by a predicate, in addition to the name and type filters.
+    *
+    * @param filter the predicate or {@code null} to export every variable
+    * @return this exporter
+    */
+   public ScopeExporter filter(Predicate<? super Variable<?>> filter) {
+      this.filter = filter;
+      return this;
+   }
+
+   /**
+    * Sets whether the variables' descriptions are written, which is the default. {@link ScopeFormat#JSON} never
+    * includes them.
+    *
+    * @param descriptions whether descriptions are written
+    * @return this exporter
+    */
+   public ScopeExporter descriptions(boolean descriptions) {
+      this.descriptions = descriptions;
+      return this;
+   }
+
+   /**
+    * Writes the variables to a stream as UTF-8. The stream is flushed but not closed.
+    *
+    * @param out a stream
+    * @throws IOException the stream failed
+    */
+   public void export(OutputStream out) throws IOException {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      this.export(writer);
+      writer.flush();
+   }
+
+   /**
+    * Writes the variables to a channel as UTF-8. The channel isn't closed.
+    *
+    * @param channel a channel
+    * @throws IOException the channel failed
+    */
+   public void export(WritableByteChannel channel) throws IOException {
+      Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), 8192);
+      this.export(writer);
+      writer.flush();
+   }
+
+   /**
+    * Writes the variables to a writer. The writer isn't flushed or closed.
+    *
+    * @param writer a writer
+    * @throws IOException the writer failed
+    */
+   public void export(Writer writer) throws IOException {
+      Iterator<Variable<?>> variables = this.variables().iterator();
+      StringBuilder entry = this.entry;
+      entry.setLength(0);
+
+      switch(this.format) {
+         case JSON:
+            boolean empty = true;
+            entry.append('{');
+            while(variables.hasNext()) {
+               entry.append(empty ? "\n  " : ",\n  ");
+               empty = false;
+               this.appendJson(entry, variables.next());
+               this.write(writer);
+            }
+            entry.append(empty ? "}\n" : "\n}\n");
+            break;
+         case CSV:
+            entry.append(this.descriptions ? "name,type,value,description\r\n" : "name,type,value\r\n");
+            while(variables.hasNext()) {
+               this.appendCsv(entry, variables.next());
+               this.write(writer);
+            }
+            break;
+         default:
+            while(variables.hasNext()) {
+               this.appendProperties(entry, variables.next());
+               this.write(writer);
+            }
+            break;
+      }
+
+      this.write(writer);
+   }
+
+   private Stream<Variable<?>> variables() {
+      Stream<Variable<?>> variables = this.namePattern != null
+            ? this.scope.glob(this.namePattern)
+            : this.scope.stream();
+
+      variables = variables.filter(variable -> !variable.isReadOnly());
+
+      if(this.types != null) {
+         Set<Class<?>> types = this.types;
+         variables = variables.filter(variable -> types.contains(variable.getType()));
+      }
+
+      if(this.filter != null) {
+         variables = variables.filter(this.filter);
+      }
+
+      return variables;
+   }
+
+   /**
+    * Hands the pending entry to the writer and empties it.
+    */
+   private void write(Writer writer) throws IOException {
+      int length = this.entry.length();
+      if(this.chars.length < length) {
+         this.chars = new char[Math.max(length, this.chars.length * 2)];
+      }
+
+      this.entry.getChars(0, length, this.chars, 0);
+      writer.write(this.chars, 0, length);
+      this.entry.setLength(0);
+   }
+
+   /**
+    * Formats a variable's value into {@link ScopeExporter#value}.
+    *
+    * @return {@code false} if the value is {@code null}
+    */
+   @SuppressWarnings("unchecked")
+   private boolean format(Variable<?> variable) {
+      this.value.setLength(0);
+
+      if(variable.getType().isPrimitive()) {
+         variable.format(this.value);
+         return true;
+      }
+
+      // read once, so that the null check and the formatted text agree and lazy sources are only read once.
+      Object value = variable.get();
+      if(value == null) {
+         return false;
+      }
+
+      ((Formatter<Object>) variable.getFormatter()).format(value, this.value);
+      return true;
+   }
+
+   @SuppressWarnings("unchecked")
+   private void appendProperties(StringBuilder entry, Variable<?> variable) {
+      String description = variable.getDescription();
+      if(this.descriptions && !description.isEmpty()) {
+         entry.append("# ");
+         for(int i = 0; i < description.length(); ++i) {
+            char c = description.charAt(i);
+
+            if(c == '\r' && i + 1 < description.length() && description.charAt(i + 1) == '\n') {
+               continue;
+            }
+
+            if(c == '\n' || c == '\r') {
+               entry.append("\n# ");
+            } else {
+               entry.append(c);
+            }
+         }
+         entry.append('\n');
+      }
+
+      if(!this.format(variable)) {
+         // the format has no null literal, see ScopeFormat#PROPERTIES.
+         ((Formatter<Object>) variable.getFormatter()).format(null, this.value);
+      }
+
+      appendPropertiesText(entry, variable.getName(), true);
+      entry.append('=');
+      appendPropertiesText(entry, this.value, false);
+      entry.append('\n');
+   }
+
+   private static void appendPropertiesText(StringBuilder entry, CharSequence text, boolean key) {
+      for(int i = 0; i < text.length(); ++i) {
+         char c = text.charAt(i);
+
+         switch(c) {
+            case ' ':
+               // only a value's leading whitespace would be lost.
+               entry.append(key || i == 0 ? "\\ " : " ");
+               break;
+            case '\t': entry.append("\\t"); break;
+            case '\n': entry.append("\\n"); break;
+            case '\r': entry.append("\\r"); break;
+            case '\f': entry.append("\\f"); break;
+            case '=': case ':': case '#': case '!': case '\\':
+               entry.append('\\').append(c);
+               break;
+            default:
+               if(c < 0x20) {
+                  appendUnicodeEscape(entry, c);
+               } else {
+                  entry.append(c);
+               }
+         }
+      }
+   }
+
+   private void appendJson(StringBuilder entry, Variable<?> variable) {
+      appendJsonString(entry, variable.getName());
+      entry.append(": ");
+
+      if(!this.format(variable)) {
+         entry.append("null");
+      } else if(isJsonLiteral(variable.getType(), this.value)) {
+         entry.append(this.value);
+      } else {
+         appendJsonString(entry, this.value);
+      }
+   }
+
+   private static boolean isJsonLiteral(Class<?> type, CharSequence text) {
+      if(type == boolean.class || type == Boolean.class) {
+         return "true".contentEquals(text) || "false".contentEquals(text);
+      }
+
+      return (type.isPrimitive() && type != char.class || Number.class.isAssignableFrom(type)) && isJsonNumber(text);
+   }
+
+   private static boolean isJsonNumber(CharSequence text) {
+      int i = 0, length = text.length();
+
+      if(i < length && text.charAt(i) == '-') {
+         ++i;
+      }
+
+      int digits = i;
+      while(i < length && isDigit(text.charAt(i))) {
+         ++i;
+      }
+      if(i == digits || text.charAt(digits) == '0' && i - digits > 1) {
+         return false;
+      }
+
+      if(i < length && text.charAt(i) == '.') {
+         digits = ++i;
+         while(i < length && isDigit(text.charAt(i))) {
+            ++i;
+         }
+         if(i == digits) {
+            return false;
+         }
+      }
+
+      if(i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+         if(++i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            ++i;
+         }
+
+         digits = i;
+         while(i < length && isDigit(text.charAt(i))) {
+            ++i;
+         }
+         if(i == digits) {
+            return false;
+         }
+      }
+
+      return i == length;
+   }
+
+   private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+   }
+
+   private static void appendJsonString(StringBuilder entry, CharSequence text) {
+      entry.append('"');
+      for(int i = 0; i < text.length(); ++i) {
+         char c = text.charAt(i);
+
+         switch(c) {
+            case '"': entry.append("\\\""); break;
+            case '\\': entry.append("\\\\"); break;
+            case '\b': entry.append("\\b"); break;
+            case '\f': entry.append("\\f"); break;
+            case '\n': entry.append("\\n"); break;
+            case '\r': entry.append("\\r"); break;
+            case '\t': entry.append("\\t"); break;
+            default:
+               if(c < 0x20) {
+                  appendUnicodeEscape(entry, c);
+               } else {
+                  entry.append(c);
+               }
+         }
+      }
+      entry.append('"');
+   }
+
+   private void appendCsv(StringBuilder entry, Variable<?> variable) {
+      appendCsvField(entry, variable.getName());
+      entry.append(',');
+      appendCsvField(entry, variable.getType().getName());
+      entry.append(',');
+      if(this.format(variable)) {
+         appendCsvField(entry, this.value);
+      }
+      if(this.descriptions) {
+         entry.append(',');
+         if(!variable.getDescription().isEmpty()) {
+            appendCsvField(entry, variable.getDescription());
+         }
+      }
+      entry.append("\r\n");
+   }
+
+   private static void appendCsvField(StringBuilder entry, CharSequence text) {
+      // an empty field is quoted so that it isn't read as null.
+      boolean quote = text.length() == 0;
+      for(int i = 0; i < text.length() && !quote; ++i) {
+         char c = text.charAt(i);
+         quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+      }
+
+      if(!quote) {
+         entry.append(text);
+         return;
+      }
+
+      entry.append('"');
+      for(int i = 0; i < text.length(); ++i) {
+         char c = text.charAt(i);
+         if(c == '"') {
+            entry.append('"');
+         }
+         entry.append(c);
+      }
+      entry.append('"');
+   }
+
+   private static void appendUnicodeEscape(StringBuilder entry, char c) {
+      entry.append("\\u");
+      for(int shift = 12; shift >= 0; shift -= 4) {
+         entry.append(Character.forDigit(c >> shift & 0xf, 16));
+      }
+   }
+}
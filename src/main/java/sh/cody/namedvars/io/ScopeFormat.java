@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+/**
+ * The text formats {@link ScopeExporter} writes and {@link ScopeLoader} reads.
+ */
+public enum ScopeFormat {
+   /**
+    * The {@link java.util.Properties} format: one {@code name=value} entry per line, preceded by the variable's
+    * description as a comment. Unlike {@link java.util.Properties#store(java.io.Writer, String)}, characters outside
+    * of ASCII aren't escaped, since the text is UTF-8 encoded.
+    *
+    * The format has no {@code null} literal: a {@code null} value is written as its formatter formats {@code null}
+    * ({@code null}, or an empty value for {@link Character}) and read back by the variable's parser. The built-in
+    * formatters and parsers round-trip {@code null} for the primitive wrappers and {@link Character}, but a
+    * {@code null} {@link String} is read back as the string {@code "null"}, and {@code null} enums and collections
+    * can't be read back as {@code null}. Use {@link ScopeFormat#JSON} or {@link ScopeFormat#CSV} if {@code null}
+    * values must round-trip.
+    */
+   PROPERTIES,
+
+   /**
+    * A JSON object with a member per variable. Numbers and booleans are written as JSON literals, other values as
+    * strings and {@code null} values as {@code null}. Descriptions aren't included.
+    */
+   JSON,
+
+   /**
+    * RFC 4180 comma separated values with a header row naming the columns {@code name}, {@code type}, {@code value}
+    * and, if descriptions are included, {@code description}. A {@code null} value is an empty unquoted field, while
+    * an empty string is written as {@code ""}. When loading, only the {@code name} and {@code value} columns are used
+    * and they may appear in any order.
+    */
+   CSV
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Populates a {@link Scope} from a stream of {@link java.util.Properties} formatted {@code key=value} entries, or from
+ * the other {@link ScopeFormat}s written by {@link ScopeExporter}.
+ *
+ * The stream is read in a single pass, one entry at a time, and each value is handed to
+ * {@link Variable#parse(CharSequence, int, int)} of the variable named by its key without being copied into a string,
+ * so even very large files are loaded with a small, constant amount of memory. Values the format marks as
+ * {@code null} (see {@link ScopeFormat}) are set directly. Entries of read-only variables (see
+ * {@link Variable#isReadOnly()}) are ignored.
+ */
+public final class ScopeLoader {
+   private final Scope scope;
+   private UnknownKeyPolicy unknownKeyPolicy = UnknownKeyPolicy.IGNORE;
+   private ScopeFormat format = ScopeFormat.PROPERTIES;
+
+   /**
+    * Constructs a new {@link ScopeLoader} which reads the {@link ScopeFormat#PROPERTIES} format and ignores unknown
+    * keys.
+    *
+    * @param scope the scope to populate
+    */
+   public ScopeLoader(Scope scope) {
+      this.scope = Objects.requireNonNull(scope);
+   }
+
+   /**
+    * Sets how keys without a matching variable are handled.
+    *
+    * @param unknownKeyPolicy the policy
+    * @return this loader
+    */
+   public ScopeLoader unknownKeys(UnknownKeyPolicy unknownKeyPolicy) {
+      this.unknownKeyPolicy = Objects.requireNonNull(unknownKeyPolicy);
+      return this;
+   }
+
+   /**
+    * Sets the format to read.
+    *
+    * @param format the format
+    * @return this loader
+    */
+   public ScopeLoader format(ScopeFormat format) {
+      this.format = Objects.requireNonNull(format);
+      return this;
+   }
+
+   /**
+    * Loads the UTF-8 encoded file at a path.
+    *
+    * @param path the file's path
+    * @return the unknown keys if the policy is {@link UnknownKeyPolicy#COLLECT}, otherwise an empty list
+    * @throws IOException the file couldn't be read
+    * @throws ScopeException a value couldn't be parsed, or an unknown key was found and the policy is
+    *                        {@link UnknownKeyPolicy#FAIL}
+    */
+   public List<String> load(Path path) throws IOException, ScopeException {
+      return this.load(path, StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Loads the file at a path.
+    *
+    * @param path the file's path
+    * @param charset the file's encoding
+    * @return the unknown keys if the policy is {@link UnknownKeyPolicy#COLLECT}, otherwise an empty list
+    * @throws IOException the file couldn't be read
+    * @throws ScopeException a value couldn't be parsed, or an unknown key was found and the policy is
+    *                        {@link UnknownKeyPolicy#FAIL}
+    */
+   public List<String> load(Path path, Charset charset) throws IOException, ScopeException {
+      try(Reader reader = Files.newBufferedReader(path, charset)) {
+         return this.load(reader);
+      }
+   }
+
+   /**
+    * Loads every entry of a reader. The reader isn't closed.
+    *
+    * @param reader a reader
+    * @return the unknown keys if the policy is {@link UnknownKeyPolicy#COLLECT}, otherwise an empty list
+    * @throws IOException the reader failed
+    * @throws ScopeException a value couldn't be parsed, or an unknown key was found and the policy is
+    *                        {@link UnknownKeyPolicy#FAIL}
+    */
+   public List<String> load(Reader reader) throws IOException, ScopeException {
+      List<String> unknownKeys = new ArrayList<>();
+
+      PropertiesReader.Handler handler = (key, value, start, end, lineNumber) -> {
+         Variable<?> variable = this.scope.get(key);
+
+         if(variable == null) {
+            this.unknownKey(unknownKeys, key, lineNumber);
+            return;
+         }
+
+         if(variable.isReadOnly()) {
+            return;
+         }
+
+         if(value == null) {
+            setNull(variable, lineNumber);
+            return;
+         }
+
+         try {
+            variable.parse(value, start, end);
+         } catch(RuntimeException exception) {
+            throw new ScopeException("Failed to parse the value of '" + key + "' on line " + lineNumber + ".",
+                  exception);
+         }
+      };
+
+      read(this.format, reader, handler);
+      return unknownKeys;
+   }
+
+   static void read(ScopeFormat format, Reader reader, PropertiesReader.Handler handler)
+         throws IOException, ScopeException {
+      switch(format) {
+         case JSON:
+            new JsonReader().read(reader, handler);
+            break;
+         case CSV:
+            new CsvReader().read(reader, handler);
+            break;
+         default:
+            new PropertiesReader().read(reader, handler);
+            break;
+      }
+   }
+
+   private static void setNull(Variable<?> variable, int lineNumber) throws ScopeException {
+      if(variable.getType().isPrimitive()) {
+         throw new ScopeException("The value of '" + variable.getName() + "' on line " + lineNumber
+               + " can't be null.");
+      }
+
+      variable.set(null);
+   }
+
+   private void unknownKey(List<String> unknownKeys, String key, int lineNumber) throws ScopeException {
+      switch(this.unknownKeyPolicy) {
+         case COLLECT:
+            unknownKeys.add(key);
+            break;
+         case FAIL:
+            throw new ScopeException("No variable named '" + key + "' on line " + lineNumber + " exists in this scope.");
+         default:
+            break;
+      }
+   }
+}
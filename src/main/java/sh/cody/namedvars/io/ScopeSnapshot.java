@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes the values of a {@link Scope}'s variables to a compact binary snapshot and restores them from one.
+ *
+ * A snapshot starts with a magic number, a format version and the number of entries. Each entry holds the variable's
+ * name, a tag for its type and its value: primitives and their wrappers are written natively in big-endian byte order
+ * (floating point values bit for bit, so they're restored exactly), strings and enum constant names are written as
+ * length-prefixed UTF-8 and values of any other type are written as the text of their {@link Variable#toString()}, i.e.
+ * formatted by the variable's {@link sh.cody.namedvars.format.Formatter}, and restored by parsing it.
+ *
+ * Restoring a file maps it into memory and applies each value directly through the variable's setters, so apart from
+ * the last category no value is formatted or parsed. Values are read one at a time: updates made concurrently with
+ * {@link ScopeSnapshot#write(OutputStream)} may or may not be included. Read-only variables (see
+ * {@link Variable#isReadOnly()}) are neither written nor restored.
+ */
+public final class ScopeSnapshot {
+   private static final int MAGIC = 0x4E565353; // "NVSS"
+   private static final byte VERSION = 1;
+
+   private static final byte NULL = 0;
+   private static final byte BOOLEAN = 1;
+   private static final byte BYTE = 2;
+   private static final byte SHORT = 3;
+   private static final byte CHAR = 4;
+   private static final byte INT = 5;
+   private static final byte LONG = 6;
+   private static final byte FLOAT = 7;
+   private static final byte DOUBLE = 8;
+   private static final byte STRING = 9;
+   private static final byte ENUM = 10;
+   private static final byte TEXT = 11;
+
+   private final Scope scope;
+   private UnknownKeyPolicy unknownKeyPolicy = UnknownKeyPolicy.IGNORE;
+
+   /**
+    * Constructs a new {@link ScopeSnapshot} which ignores entries without a matching variable when restoring.
+    *
+    * @param scope the scope to write or restore
+    */
+   public ScopeSnapshot(Scope scope) {
+      this.scope = Objects.requireNonNull(scope);
+   }
+
+   /**
+    * Sets how entries without a matching variable are handled when restoring.
+    *
+    * @param unknownKeyPolicy the policy
+    * @return this snapshot
+    */
+   public ScopeSnapshot unknownKeys(UnknownKeyPolicy unknownKeyPolicy) {
+      this.unknownKeyPolicy = Objects.requireNonNull(unknownKeyPolicy);
+      return this;
+   }
+
+   /**
+    * Writes a snapshot of the scope's variables to a file, replacing it if it exists.
+    *
+    * @param path the file's path
+    * @throws IOException the file couldn't be written
+    */
+   public void write(Path path) throws IOException {
+      try(OutputStream out = Files.newOutputStream(path)) {
+         this.write(out);
+      }
+   }
+
+   /**
+    * Writes a snapshot of the scope's variables to a stream. The stream is flushed but not closed.
+    *
+    * @param out a stream
+    * @throws IOException the stream failed
+    */
+   public void write(OutputStream out) throws IOException {
+      Variable<?>[] variables = this.scope.stream().filter(variable -> !variable.isReadOnly())
+            .toArray(Variable<?>[]::new);
+      DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+
+      data.writeInt(MAGIC);
+      data.writeByte(VERSION);
+      data.writeInt(variables.length);
+
+      for(Variable<?> variable : variables) {
+         writeString(data, variable.getName());
+         writeValue(data, variable);
+      }
+
+      data.flush();
+   }
+
+   private static void writeValue(DataOutputStream data, Variable<?> variable) throws IOException {
+      byte tag = tagOf(variable.getType());
+
+      // primitive variables are read without boxing, everything else may be null.
+      switch(tag) {
+         case INT:
+            if(variable.getType() == int.class) {
+               data.writeByte(INT);
+               data.writeInt(variable.getInt());
+               return;
+            }
+            break;
+         case LONG:
+            if(variable.getType() == long.class) {
+               data.writeByte(LONG);
+               data.writeLong(variable.getLong());
+               return;
+            }
+            break;
+         case DOUBLE:
+            if(variable.getType() == double.class) {
+               data.writeByte(DOUBLE);
+               data.writeLong(Double.doubleToRawLongBits(variable.getDouble()));
+               return;
+            }
+            break;
+         case BOOLEAN:
+            if(variable.getType() == boolean.class) {
+               data.writeByte(BOOLEAN);
+               data.writeBoolean(variable.getBoolean());
+               return;
+            }
+            break;
+         default:
+            break;
+      }
+
+      Object value = variable.get();
+      if(value == null) {
+         data.writeByte(NULL);
+         return;
+      }
+
+      data.writeByte(tag);
+      switch(tag) {
+         case BOOLEAN: data.writeBoolean((Boolean) value); break;
+         case BYTE: data.writeByte((Byte) value); break;
+         case SHORT: data.writeShort((Short) value); break;
+         case CHAR: data.writeChar((Character) value); break;
+         case INT: data.writeInt((Integer) value); break;
+         case LONG: data.writeLong((Long) value); break;
+         case FLOAT: data.writeInt(Float.floatToRawIntBits((Float) value)); break;
+         case DOUBLE: data.writeLong(Double.doubleToRawLongBits((Double) value)); break;
+         case STRING: writeString(data, (String) value); break;
+         case ENUM: writeString(data, ((Enum<?>) value).name()); break;
+         default: writeString(data, variable.toString()); break;
+      }
+   }
+
+   private static void writeString(DataOutputStream data, String string) throws IOException {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+   }
+
+   private static byte tagOf(Class<?> type) {
+      if(type == boolean.class || type == Boolean.class) return BOOLEAN;
+      if(type == byte.class || type == Byte.class) return BYTE;
+      if(type == short.class || type == Short.class) return SHORT;
+      if(type == char.class || type == Character.class) return CHAR;
+      if(type == int.class || type == Integer.class) return INT;
+      if(type == long.class || type == Long.class) return LONG;
+      if(type == float.class || type == Float.class) return FLOAT;
+      if(type == double.class || type == Double.class) return DOUBLE;
+      if(type == String.class) return STRING;
+      if(type.isEnum()) return ENUM;
+      return TEXT;
+   }
+
+   /**
+    * Restores the scope's variables from a snapshot file, which is mapped into memory rather than read.
+    *
+    * @param path the file's path
+    * @return the names of entries without a matching variable if the policy is {@link UnknownKeyPolicy#COLLECT},
+    *         otherwise an empty list
+    * @throws IOException the file couldn't be read
+    * @throws ScopeException the file isn't a valid snapshot, a value doesn't match its variable's type or couldn't be
+    *                        applied, or an unknown entry was found and the policy is {@link UnknownKeyPolicy#FAIL}
+    */
+   public List<String> restore(Path path) throws IOException, ScopeException {
+      try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         return this.restore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+   }
+
+   /**
+    * Restores the scope's variables from a snapshot held by a buffer, starting at its position. The buffer's position
+    * is advanced past the snapshot.
+    *
+    * @param buffer a buffer
+    * @return the names of entries without a matching variable if the policy is {@link UnknownKeyPolicy#COLLECT},
+    *         otherwise an empty list
+    * @throws ScopeException the buffer doesn't hold a valid snapshot, a value doesn't match its variable's type or
+    *                        couldn't be applied, or an unknown entry was found and the policy is
+    *                        {@link UnknownKeyPolicy#FAIL}
+    */
+   public List<String> restore(ByteBuffer buffer) throws ScopeException {
+      List<String> unknownKeys = new ArrayList<>();
+      ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+      try {
+         if(in.getInt() != MAGIC) {
+            throw new ScopeException("The data isn't a scope snapshot.");
+         }
+
+         byte version = in.get();
+         if(version != VERSION) {
+            throw new ScopeException("Unsupported snapshot version " + version + ".");
+         }
+
+         for(int count = in.getInt(); count > 0; --count) {
+            String name = readString(in);
+            byte tag = in.get();
+            Variable<?> variable = this.scope.get(name);
+
+            if(variable == null) {
+               skipValue(in, tag);
+               this.unknownKey(unknownKeys, name);
+               continue;
+            }
+
+            if(variable.isReadOnly()) {
+               skipValue(in, tag);
+               continue;
+            }
+
+            try {
+               restoreValue(in, tag, variable);
+            } catch(RuntimeException exception) {
+               throw new ScopeException("Failed to restore the value of '" + name + "'.", exception);
+            }
+         }
+      } catch(BufferUnderflowException exception) {
+         throw new ScopeException("The snapshot is truncated.", exception);
+      }
+
+      buffer.position(in.position());
+      return unknownKeys;
+   }
+
+   @SuppressWarnings({"unchecked", "rawtypes"})
+   private static void restoreValue(ByteBuffer in, byte tag, Variable<?> variable) throws ScopeException {
+      Class<?> type = variable.getType();
+
+      if(tag == NULL) {
+         if(type.isPrimitive()) {
+            throw new ScopeException("The snapshot holds null for the primitive variable '" + variable.getName() + "'.");
+         }
+
+         variable.set(null);
+         return;
+      }
+
+      if(tag != tagOf(type)) {
+         throw new ScopeException("The snapshot's value of '" + variable.getName() + "' doesn't match its type.");
+      }
+
+      Variable<Object> target = (Variable<Object>) variable;
+      switch(tag) {
+         case BOOLEAN: target.setBoolean(in.get() != 0); break;
+         case BYTE: target.set(in.get()); break;
+         case SHORT: target.set(in.getShort()); break;
+         case CHAR: target.set(in.getChar()); break;
+         case INT: target.setInt(in.getInt()); break;
+         case LONG: target.setLong(in.getLong()); break;
+         case FLOAT: target.set(Float.intBitsToFloat(in.getInt())); break;
+         case DOUBLE: target.setDouble(Double.longBitsToDouble(in.getLong())); break;
+         case STRING: target.set(readString(in)); break;
+         case ENUM: target.set(Enum.valueOf((Class) type, readString(in))); break;
+         default: target.parse(readString(in)); break;
+      }
+   }
+
+   private static void skipValue(ByteBuffer in, byte tag) throws ScopeException {
+      switch(tag) {
+         case NULL: break;
+         case BOOLEAN: case BYTE: skip(in, 1); break;
+         case SHORT: case CHAR: skip(in, 2); break;
+         case INT: case FLOAT: skip(in, 4); break;
+         case LONG: case DOUBLE: skip(in, 8); break;
+         case STRING: case ENUM: case TEXT: skip(in, in.getInt()); break;
+         default: throw new ScopeException("The snapshot contains an unknown type tag " + tag + ".");
+      }
+   }
+
+   private static void skip(ByteBuffer in, int length) {
+      if(length < 0 || length > in.remaining()) {
+         throw new BufferUnderflowException();
+      }
+
+      in.position(in.position() + length);
+   }
+
+   private static String readString(ByteBuffer in) {
+      int length = in.getInt();
+      if(length < 0 || length > in.remaining()) {
+         throw new BufferUnderflowException();
+      }
+
+      String string;
+      if(in.hasArray()) {
+         string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+      } else {
+         ByteBuffer slice = in.slice();
+         slice.limit(length);
+         string = StandardCharsets.UTF_8.decode(slice).toString();
+      }
+
+      in.position(in.position() + length);
+      return string;
+   }
+
+   private void unknownKey(List<String> unknownKeys, String name) throws ScopeException {
+      switch(this.unknownKeyPolicy) {
+         case COLLECT:
+            unknownKeys.add(name);
+            break;
+         case FAIL:
+            throw new ScopeException("No variable named '" + name + "' exists in this scope.");
+         default:
+            break;
+      }
+   }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.io;
+
+import sh.cody.namedvars.Batch;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link Scope} in sync with a file by watching it with a {@link WatchService}.
+ *
+ * Bursts of file system events, such as those caused by an editor writing a file in several steps, are debounced:
+ * the file is only re-read once no event has been seen for the debounce interval. The file is read in a single pass
+ * and each value is compared against the text last applied for its key without being copied, so only entries whose
+ * text actually changed are parsed. The changed entries are applied together as a {@link Batch}, so a file which
+ * contains an unparsable value leaves every variable unchanged. Entries removed from the file keep their last value.
+ *
+ * Keys without a matching variable are skipped, and applied on a later reload if a variable has been added for them.
+ * Entries of read-only variables are ignored.
+ * Failures while watching or reloading are passed to the error handler; the watcher keeps running.
+ */
+public final class ScopeWatcher implements Closeable {
+   private final Scope scope;
+   private final Path path;
+   private final Map<String, String> applied = new HashMap<>();
+   private ScopeFormat format = ScopeFormat.PROPERTIES;
+   private Charset charset = StandardCharsets.UTF_8;
+   private long debounceNanos = TimeUnit.MILLISECONDS.toNanos(100);
+   private Consumer<? super Exception> errorHandler = exception -> { };
+   private WatchService watchService;
+   private Thread thread;
+   private volatile boolean closed;
+
+   /**
+    * Constructs a new {@link ScopeWatcher} which reads the UTF-8 encoded {@link ScopeFormat#PROPERTIES} format and
+    * debounces events for 100 milliseconds.
+    *
+    * @param scope the scope to update
+    * @param path the file to watch, which doesn't need to exist yet
+    */
+   public ScopeWatcher(Scope scope, Path path) {
+      this.scope = Objects.requireNonNull(scope);
+      this.path = path.toAbsolutePath();
+   }
+
+   /**
+    * Sets the format to read.
+    *
+    * @param format the format
+    * @return this watcher
+    */
+   public ScopeWatcher format(ScopeFormat format) {
+      this.format = Objects.requireNonNull(format);
+      return this;
+   }
+
+   /**
+    * Sets the file's encoding.
+    *
+    * @param charset the encoding
+    * @return this watcher
+    */
+   public ScopeWatcher charset(Charset charset) {
+      this.charset = Objects.requireNonNull(charset);
+      return this;
+   }
+
+   /**
+    * Sets how long the file must stay unchanged before it is re-read.
+    *
+    * @param debounce the interval
+    * @return this watcher
+    */
+   public ScopeWatcher debounce(Duration debounce) {
+      if(debounce.isNegative()) {
+         throw new IllegalArgumentException("The debounce interval can't be negative.");
+      }
+
+      this.debounceNanos = debounce.toNanos();
+      return this;
+   }
+
+   /**
+    * Sets the handler for failures which happen after {@link #start()} returned.
+    *
+    * @param errorHandler the handler, which is called on the watching thread
+    * @return this watcher
+    */
+   public ScopeWatcher onError(Consumer<? super Exception> errorHandler) {
+      this.errorHandler = Objects.requireNonNull(errorHandler);
+      return this;
+   }
+
+   /**
+    * Loads the file, if it exists, and starts watching it on a daemon thread.
+    *
+    * @return this watcher
+    * @throws IOException the file couldn't be read or its directory couldn't be watched
+    * @throws ScopeException a value couldn't be parsed
+    */
+   public synchronized ScopeWatcher start() throws IOException, ScopeException {
+      if(this.thread != null || this.closed) {
+         throw new IllegalStateException("This watcher has already been started.");
+      }
+
+      if(Files.exists(this.path)) {
+         this.reload();
+      }
+
+      this.watchService = this.path.getFileSystem().newWatchService();
+      this.path.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+
+      this.thread = new Thread(this::watch, "ScopeWatcher-" + this.path.getFileName());
+      this.thread.setDaemon(true);
+      this.thread.start();
+      return this;
+   }
+
+   /**
+    * Stops watching the file.
+    *
+    * @throws IOException the watch service couldn't be closed
+    */
+   @Override
+   public synchronized void close() throws IOException {
+      this.closed = true;
+
+      if(this.watchService != null) {
+         this.watchService.close();
+      }
+   }
+
+   private void watch() {
+      long deadline = 0;
+      boolean pending = false;
+
+      try {
+         while(!this.closed) {
+            WatchKey key = pending
+                  ? this.watchService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                  : this.watchService.take();
+
+            if(key != null) {
+               if(this.concernsFile(key)) {
+                  deadline = System.nanoTime() + this.debounceNanos;
+                  pending = true;
+               }
+
+               key.reset();
+            }
+
+            if(pending && System.nanoTime() - deadline >= 0) {
+               pending = false;
+
+               try {
+                  this.reload();
+               } catch(NoSuchFileException exception) {
+                  // Deleted, or replaced by a rename which will be reported by another event.
+               } catch(IOException | ScopeException | RuntimeException exception) {
+                  this.errorHandler.accept(exception);
+               }
+            }
+         }
+      } catch(ClosedWatchServiceException exception) {
+         // Closed by close().
+      } catch(InterruptedException exception) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private boolean concernsFile(WatchKey key) {
+      boolean concernsFile = false;
+
+      for(WatchEvent<?> event : key.pollEvents()) {
+         if(event.kind() == StandardWatchEventKinds.OVERFLOW || this.path.getFileName().equals(event.context())) {
+            concernsFile = true;
+         }
+      }
+
+      return concernsFile;
+   }
+
+   private void reload() throws IOException, ScopeException {
+      Batch batch = this.scope.batch();
+      Map<String, String> changed = new HashMap<>();
+
+      PropertiesReader.Handler handler = (key, value, start, end, lineNumber) -> {
+         String previous = this.applied.get(key);
+
+         if(value == null ? previous == null && this.applied.containsKey(key)
+               : previous != null && regionEquals(previous, value, start, end)) {
+            return;
+         }
+
+         Variable<?> variable = this.scope.get(key);
+
+         if(variable == null || variable.isReadOnly()) {
+            return;
+         }
+
+         if(value == null) {
+            if(variable.getType().isPrimitive()) {
+               throw new ScopeException("The value of '" + key + "' on line " + lineNumber + " can't be null.");
+            }
+
+            batch.set(variable, null);
+            changed.put(key, null);
+         } else {
+            String text = value.subSequence(start, end).toString();
+            batch.parse(key, text);
+            changed.put(key, text);
+         }
+      };
+
+      try(Reader reader = Files.newBufferedReader(this.path, this.charset)) {
+         ScopeLoader.read(this.format, reader, handler);
+      }
+
+      if(!changed.isEmpty()) {
+         batch.apply();
+         this.applied.putAll(changed);
+      }
+   }
+
+   private static boolean regionEquals(String string, CharSequence sequence, int start, int end) {
+      if(string.length() != end - start) {
+         return false;
+      }
+
+      for(int i = 0; i < string.length(); ++i) {
+         if(string.charAt(i) != sequence.charAt(start + i)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
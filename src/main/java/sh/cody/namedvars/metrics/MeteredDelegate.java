@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.metrics;
+
+import sh.cody.namedvars.delegate.*;
+
+/**
+ * A {@link Delegate} which counts the reads and writes of another delegate in a {@link VariableMetrics}.
+ *
+ * {@link MeteredDelegate#wrap(Delegate, VariableMetrics)} wraps each delegate in the subclass with the same
+ * capabilities, so metering doesn't change how a variable can be used: primitive delegates (e.g. {@link IntDelegate})
+ * are still accessed without boxing, and {@link AtomicDelegate}s, {@link CachingDelegate}s and
+ * {@link BufferedDelegate}s can still be updated atomically, invalidated and flushed. Variables that aren't metered
+ * aren't wrapped at all, so instrumentation costs nothing unless it's enabled.
+ *
+ * @param <T> the type of the stored value as its known by the Scope
+ */
+public class MeteredDelegate<T> implements Delegate<T> {
+   final Delegate<T> delegate;
+   final VariableMetrics metrics;
+
+   private MeteredDelegate(Delegate<T> delegate, VariableMetrics metrics) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+   }
+
+   /**
+    * Wraps a delegate with the most specific {@link MeteredDelegate}.
+    *
+    * @param delegate the delegate
+    * @param metrics the metrics to count accesses in
+    * @param <T> the type of the stored value as its known by the Scope
+    * @return the wrapped delegate
+    */
+   @SuppressWarnings("unchecked")
+   public static <T> MeteredDelegate<T> wrap(Delegate<T> delegate, VariableMetrics metrics) {
+      if(delegate instanceof AtomicDelegate) {
+         return new OfAtomic<>((AtomicDelegate<T>) delegate, metrics);
+      } else if(delegate instanceof CachingDelegate) {
+         return new OfCaching<>((CachingDelegate<T>) delegate, metrics);
+      } else if(delegate instanceof BufferedDelegate) {
+         return new OfBuffered<>((BufferedDelegate<T>) delegate, metrics);
+      } else if(delegate instanceof IntDelegate) {
+         return (MeteredDelegate<T>) new OfInt((IntDelegate) delegate, metrics);
+      } else if(delegate instanceof LongDelegate) {
+         return (MeteredDelegate<T>) new OfLong((LongDelegate) delegate, metrics);
+      } else if(delegate instanceof DoubleDelegate) {
+         return (MeteredDelegate<T>) new OfDouble((DoubleDelegate) delegate, metrics);
+      } else if(delegate instanceof BooleanDelegate) {
+         return (MeteredDelegate<T>) new OfBoolean((BooleanDelegate) delegate, metrics);
+      } else {
+         return new MeteredDelegate<>(delegate, metrics);
+      }
+   }
+
+   @Override
+   public T get() {
+      this.metrics.read();
+      return this.delegate.get();
+   }
+
+   @Override
+   public void set(T value) {
+      this.metrics.write();
+      this.delegate.set(value);
+   }
+
+   @Override
+   public boolean isReadOnly() {
+      return this.delegate.isReadOnly();
+   }
+
+   /**
+    * Returns the wrapped delegate.
+    *
+    * @return the wrapped delegate
+    */
+   public Delegate<T> getDelegate() {
+      return this.delegate;
+   }
+
+   public VariableMetrics getMetrics() {
+      return this.metrics;
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link AtomicDelegate}s. Its atomic operations count as a write if they update the
+    * value. Primitive atomic delegates are accessed through their boxed methods once they're metered.
+    */
+   public static final class OfAtomic<T> extends MeteredDelegate<T> implements AtomicDelegate<T> {
+      private OfAtomic(AtomicDelegate<T> delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public boolean compareAndSet(T expected, T value) {
+         if(((AtomicDelegate<T>) this.delegate).compareAndSet(expected, value)) {
+            this.metrics.write();
+            return true;
+         }
+
+         return false;
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link CachingDelegate}s. Invalidations aren't counted.
+    */
+   public static final class OfCaching<T> extends MeteredDelegate<T> implements CachingDelegate<T> {
+      private OfCaching(CachingDelegate<T> delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public void invalidate() {
+         ((CachingDelegate<T>) this.delegate).invalidate();
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link BufferedDelegate}s. Writes are counted when they're made, not when they're
+    * flushed.
+    */
+   public static final class OfBuffered<T> extends MeteredDelegate<T> implements BufferedDelegate<T> {
+      private OfBuffered(BufferedDelegate<T> delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public void flush() {
+         ((BufferedDelegate<T>) this.delegate).flush();
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link IntDelegate}s.
+    */
+   public static final class OfInt extends MeteredDelegate<Integer> implements IntDelegate {
+      private OfInt(IntDelegate delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public int getInt() {
+         this.metrics.read();
+         return ((IntDelegate) this.delegate).getInt();
+      }
+
+      @Override
+      public void setInt(int value) {
+         this.metrics.write();
+         ((IntDelegate) this.delegate).setInt(value);
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link LongDelegate}s.
+    */
+   public static final class OfLong extends MeteredDelegate<Long> implements LongDelegate {
+      private OfLong(LongDelegate delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public long getLong() {
+         this.metrics.read();
+         return ((LongDelegate) this.delegate).getLong();
+      }
+
+      @Override
+      public void setLong(long value) {
+         this.metrics.write();
+         ((LongDelegate) this.delegate).setLong(value);
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link DoubleDelegate}s.
+    */
+   public static final class OfDouble extends MeteredDelegate<Double> implements DoubleDelegate {
+      private OfDouble(DoubleDelegate delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public double getDouble() {
+         this.metrics.read();
+         return ((DoubleDelegate) this.delegate).getDouble();
+      }
+
+      @Override
+      public void setDouble(double value) {
+         this.metrics.write();
+         ((DoubleDelegate) this.delegate).setDouble(value);
+      }
+   }
+
+   /**
+    * A {@link MeteredDelegate} for {@link BooleanDelegate}s.
+    */
+   public static final class OfBoolean extends MeteredDelegate<Boolean> implements BooleanDelegate {
+      private OfBoolean(BooleanDelegate delegate, VariableMetrics metrics) {
+         super(delegate, metrics);
+      }
+
+      @Override
+      public boolean getBoolean() {
+         this.metrics.read();
+         return ((BooleanDelegate) this.delegate).getBoolean();
+      }
+
+      @Override
+      public void setBoolean(boolean value) {
+         this.metrics.write();
+         ((BooleanDelegate) this.delegate).setBoolean(value);
+      }
+   }
+}
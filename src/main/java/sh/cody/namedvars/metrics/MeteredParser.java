@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.metrics;
+
+import sh.cody.namedvars.parse.*;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Parser} which records the latency and failures of another parser in a {@link VariableMetrics}.
+ *
+ * Like {@link MeteredDelegate}, {@link MeteredParser#wrap(Parser, VariableMetrics)} wraps primitive parsers (e.g.
+ * {@link IntParser}) with a primitive parser, so they still parse without boxing.
+ *
+ * @param <T> the type of the parsed value
+ */
+public class MeteredParser<T> implements Parser<T> {
+   private final Parser<T> parser;
+   private final VariableMetrics metrics;
+
+   private MeteredParser(Parser<T> parser, VariableMetrics metrics) {
+      this.parser = parser;
+      this.metrics = metrics;
+   }
+
+   /**
+    * Wraps a parser with the most specific metered parser.
+    *
+    * @param parser the parser or {@code null}
+    * @param metrics the metrics to record parses in
+    * @param <T> the type of the parsed value
+    * @return the wrapped parser, or {@code null} if the parser is {@code null}
+    */
+   @SuppressWarnings("unchecked")
+   public static <T> Parser<T> wrap(Parser<T> parser, VariableMetrics metrics) {
+      if(parser == null) {
+         return null;
+      } else if(parser instanceof IntParser) {
+         return (Parser<T>) new OfInt((IntParser) parser, metrics);
+      } else if(parser instanceof LongParser) {
+         return (Parser<T>) new OfLong((LongParser) parser, metrics);
+      } else if(parser instanceof DoubleParser) {
+         return (Parser<T>) new OfDouble((DoubleParser) parser, metrics);
+      } else if(parser instanceof BooleanParser) {
+         return (Parser<T>) new OfBoolean((BooleanParser) parser, metrics);
+      } else {
+         return new MeteredParser<>(parser, metrics);
+      }
+   }
+
+   @Override
+   public T parse(String str) {
+      long start = System.nanoTime();
+      boolean failed = true;
+      try {
+         T value = this.parser.parse(str);
+         failed = false;
+         return value;
+      } finally {
+         this.metrics.parsed(start, failed);
+      }
+   }
+
+   @Override
+   public T parse(CharSequence seq, int start, int end) {
+      long startNanos = System.nanoTime();
+      boolean failed = true;
+      try {
+         T value = this.parser.parse(seq, start, end);
+         failed = false;
+         return value;
+      } finally {
+         this.metrics.parsed(startNanos, failed);
+      }
+   }
+
+   @Override
+   public T parse(ByteBuffer buffer) {
+      long start = System.nanoTime();
+      boolean failed = true;
+      try {
+         T value = this.parser.parse(buffer);
+         failed = false;
+         return value;
+      } finally {
+         this.metrics.parsed(start, failed);
+      }
+   }
+
+   /**
+    * A metered {@link IntParser}.
+    */
+   private static final class OfInt implements IntParser {
+      private final IntParser parser;
+      private final VariableMetrics metrics;
+
+      private OfInt(IntParser parser, VariableMetrics metrics) {
+         this.parser = parser;
+         this.metrics = metrics;
+      }
+
+      @Override
+      public int parseInt(String str) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            int value = this.parser.parseInt(str);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+
+      @Override
+      public int parseInt(CharSequence seq, int start, int end) {
+         long startNanos = System.nanoTime();
+         boolean failed = true;
+         try {
+            int value = this.parser.parseInt(seq, start, end);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(startNanos, failed);
+         }
+      }
+
+      @Override
+      public int parseInt(ByteBuffer buffer) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            int value = this.parser.parseInt(buffer);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+   }
+
+   /**
+    * A metered {@link LongParser}.
+    */
+   private static final class OfLong implements LongParser {
+      private final LongParser parser;
+      private final VariableMetrics metrics;
+
+      private OfLong(LongParser parser, VariableMetrics metrics) {
+         this.parser = parser;
+         this.metrics = metrics;
+      }
+
+      @Override
+      public long parseLong(String str) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            long value = this.parser.parseLong(str);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+
+      @Override
+      public long parseLong(CharSequence seq, int start, int end) {
+         long startNanos = System.nanoTime();
+         boolean failed = true;
+         try {
+            long value = this.parser.parseLong(seq, start, end);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(startNanos, failed);
+         }
+      }
+
+      @Override
+      public long parseLong(ByteBuffer buffer) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            long value = this.parser.parseLong(buffer);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+   }
+
+   /**
+    * A metered {@link DoubleParser}.
+    */
+   private static final class OfDouble implements DoubleParser {
+      private final DoubleParser parser;
+      private final VariableMetrics metrics;
+
+      private OfDouble(DoubleParser parser, VariableMetrics metrics) {
+         this.parser = parser;
+         this.metrics = metrics;
+      }
+
+      @Override
+      public double parseDouble(String str) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            double value = this.parser.parseDouble(str);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+
+      @Override
+      public double parseDouble(CharSequence seq, int start, int end) {
+         long startNanos = System.nanoTime();
+         boolean failed = true;
+         try {
+            double value = this.parser.parseDouble(seq, start, end);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(startNanos, failed);
+         }
+      }
+
+      @Override
+      public double parseDouble(ByteBuffer buffer) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            double value = this.parser.parseDouble(buffer);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+   }
+
+   /**
+    * A metered {@link BooleanParser}.
+    */
+   private static final class OfBoolean implements BooleanParser {
+      private final BooleanParser parser;
+      private final VariableMetrics metrics;
+
+      private OfBoolean(BooleanParser parser, VariableMetrics metrics) {
+         this.parser = parser;
+         this.metrics = metrics;
+      }
+
+      @Override
+      public boolean parseBoolean(String str) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            boolean value = this.parser.parseBoolean(str);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+
+      @Override
+      public boolean parseBoolean(CharSequence seq, int start, int end) {
+         long startNanos = System.nanoTime();
+         boolean failed = true;
+         try {
+            boolean value = this.parser.parseBoolean(seq, start, end);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(startNanos, failed);
+         }
+      }
+
+      @Override
+      public boolean parseBoolean(ByteBuffer buffer) {
+         long start = System.nanoTime();
+         boolean failed = true;
+         try {
+            boolean value = this.parser.parseBoolean(buffer);
+            failed = false;
+            return value;
+         } finally {
+            this.metrics.parsed(start, failed);
+         }
+      }
+   }
+}
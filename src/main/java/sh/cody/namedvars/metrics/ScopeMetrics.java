@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The {@link VariableMetrics} of the metered variables of a scope, see {@link sh.cody.namedvars.Scope#enableMetrics()}.
+ *
+ * The metrics can be read through {@link ScopeMetrics#snapshot()} or published as a platform MXBean with
+ * {@link ScopeMetrics#registerMBean(ObjectName)}, where the totals are computed whenever they're read.
+ */
+public final class ScopeMetrics implements ScopeMetricsMXBean {
+   private final ConcurrentNavigableMap<String, VariableMetrics> variables = new ConcurrentSkipListMap<>();
+
+   /**
+    * Adds the metrics of a metered variable, replacing any metrics registered under the same name.
+    *
+    * @param metrics the variable's metrics
+    */
+   public void register(VariableMetrics metrics) {
+      this.variables.put(metrics.getName(), metrics);
+   }
+
+   /**
+    * Returns the metrics of a variable.
+    *
+    * @param name the variable's name
+    * @return the variable's metrics or {@code null} if the variable isn't metered
+    */
+   public VariableMetrics get(String name) {
+      return this.variables.get(name);
+   }
+
+   /**
+    * Returns a snapshot of every metered variable, ordered by name.
+    *
+    * @return the snapshots by variable name
+    */
+   public Map<String, VariableMetricsSnapshot> snapshot() {
+      Map<String, VariableMetricsSnapshot> snapshots = new LinkedHashMap<>();
+      for(VariableMetrics metrics : this.variables.values()) {
+         snapshots.put(metrics.getName(), metrics.snapshot());
+      }
+      return snapshots;
+   }
+
+   /**
+    * Registers these metrics with the platform {@link MBeanServer}.
+    *
+    * @param name the MBean's name, e.g. {@code sh.cody.namedvars:type=ScopeMetrics,name=config}
+    * @throws JMException the MBean couldn't be registered, e.g. because the name is already in use
+    */
+   public void registerMBean(ObjectName name) throws JMException {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, ScopeMetricsMXBean.class, true),
+            name);
+   }
+
+   @Override
+   public int getVariableCount() {
+      return this.variables.size();
+   }
+
+   @Override
+   public long getTotalReads() {
+      long total = 0;
+      for(VariableMetrics metrics : this.variables.values()) {
+         total += metrics.readCount();
+      }
+      return total;
+   }
+
+   @Override
+   public long getTotalWrites() {
+      long total = 0;
+      for(VariableMetrics metrics : this.variables.values()) {
+         total += metrics.writeCount();
+      }
+      return total;
+   }
+
+   @Override
+   public long getTotalParses() {
+      long total = 0;
+      for(VariableMetrics metrics : this.variables.values()) {
+         total += metrics.parseCount();
+      }
+      return total;
+   }
+
+   @Override
+   public long getTotalParseFailures() {
+      long total = 0;
+      for(VariableMetrics metrics : this.variables.values()) {
+         total += metrics.parseFailureCount();
+      }
+      return total;
+   }
+
+   @Override
+   public List<VariableMetricsSnapshot> getVariables() {
+      return new ArrayList<>(this.snapshot().values());
+   }
+
+   @Override
+   public void reset() {
+      for(VariableMetrics metrics : this.variables.values()) {
+         metrics.reset();
+      }
+   }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The access and parse counters of a single variable, updated by its {@link MeteredDelegate} and
+ * {@link MeteredParser}.
+ *
+ * Counters are {@link LongAdder}s, which stripe updates from contending threads across cells, so instrumenting a
+ * variable that is read concurrently doesn't serialize its readers. Parse latencies are recorded in a histogram of
+ * power-of-two nanosecond buckets: bucket {@code i} counts parses that took less than {@code 2^(i+1)} and, unless
+ * {@code i} is 0, at least {@code 2^i} nanoseconds.
+ */
+public final class VariableMetrics {
+   static final int BUCKETS = 40;
+
+   private final String name;
+   private final LongAdder reads = new LongAdder();
+   private final LongAdder writes = new LongAdder();
+   private final LongAdder parses = new LongAdder();
+   private final LongAdder parseFailures = new LongAdder();
+   private final LongAdder parseNanos = new LongAdder();
+   private final AtomicLongArray parseLatencies = new AtomicLongArray(BUCKETS);
+
+   /**
+    * Constructs new metrics with every counter set to zero.
+    *
+    * @param name the name of the variable
+    */
+   public VariableMetrics(String name) {
+      this.name = Objects.requireNonNull(name);
+   }
+
+   void read() {
+      this.reads.increment();
+   }
+
+   void write() {
+      this.writes.increment();
+   }
+
+   void parsed(long startNanos, boolean failed) {
+      long nanos = Math.max(System.nanoTime() - startNanos, 0L);
+
+      this.parses.increment();
+      if(failed) {
+         this.parseFailures.increment();
+      }
+      this.parseNanos.add(nanos);
+      this.parseLatencies.incrementAndGet(Math.min(63 - Long.numberOfLeadingZeros(nanos | 1), BUCKETS - 1));
+   }
+
+   long readCount() {
+      return this.reads.sum();
+   }
+
+   long writeCount() {
+      return this.writes.sum();
+   }
+
+   long parseCount() {
+      return this.parses.sum();
+   }
+
+   long parseFailureCount() {
+      return this.parseFailures.sum();
+   }
+
+   /**
+    * Returns the name of the variable.
+    *
+    * @return the name of the variable
+    */
+   public String getName() {
+      return this.name;
+   }
+
+   /**
+    * Returns the current values of the counters. Counters are read one at a time while they may still be updated, so
+    * the snapshot isn't necessarily consistent across counters.
+    *
+    * @return a snapshot of the counters
+    */
+   public VariableMetricsSnapshot snapshot() {
+      long[] buckets = new long[BUCKETS];
+      for(int i = 0; i < BUCKETS; ++i) {
+         buckets[i] = this.parseLatencies.get(i);
+      }
+
+      return new VariableMetricsSnapshot(this.name, this.reads.sum(), this.writes.sum(), this.parses.sum(),
+            this.parseFailures.sum(), this.parseNanos.sum(), buckets);
+   }
+
+   /**
+    * Resets every counter to zero. Updates made concurrently may be lost.
+    */
+   public void reset() {
+      this.reads.reset();
+      this.writes.reset();
+      this.parses.reset();
+      this.parseFailures.reset();
+      this.parseNanos.reset();
+      for(int i = 0; i < BUCKETS; ++i) {
+         this.parseLatencies.set(i, 0L);
+      }
+   }
+}
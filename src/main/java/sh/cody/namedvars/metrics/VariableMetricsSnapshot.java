@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.metrics;
+
+/**
+ * The counters of a variable at one point in time, see {@link VariableMetrics#snapshot()}.
+ */
+public final class VariableMetricsSnapshot {
+   private final String name;
+   private final long reads;
+   private final long writes;
+   private final long parses;
+   private final long parseFailures;
+   private final long totalParseNanos;
+   private final long[] parseLatencyBuckets;
+
+   VariableMetricsSnapshot(String name, long reads, long writes, long parses, long parseFailures, long totalParseNanos,
+         long[] parseLatencyBuckets) {
+      this.name = name;
+      this.reads = reads;
+      this.writes = writes;
+      this.parses = parses;
+      this.parseFailures = parseFailures;
+      this.totalParseNanos = totalParseNanos;
+      this.parseLatencyBuckets = parseLatencyBuckets;
+   }
+
+   public String getName() {
+      return this.name;
+   }
+
+   /**
+    * Returns how often the variable's value was read through its delegate, including the reads made by formatting.
+    *
+    * @return the number of reads
+    */
+   public long getReads() {
+      return this.reads;
+   }
+
+   /**
+    * Returns how often the variable's value was written through its delegate, including the writes made by parsing.
+    *
+    * @return the number of writes
+    */
+   public long getWrites() {
+      return this.writes;
+   }
+
+   /**
+    * Returns how often a value was parsed, including failed attempts.
+    *
+    * @return the number of parses
+    */
+   public long getParses() {
+      return this.parses;
+   }
+
+   public long getParseFailures() {
+      return this.parseFailures;
+   }
+
+   public long getTotalParseNanos() {
+      return this.totalParseNanos;
+   }
+
+   public double getMeanParseNanos() {
+      return this.parses == 0 ? 0.0 : (double) this.totalParseNanos / this.parses;
+   }
+
+   /**
+    * Returns the parse latency histogram, see {@link VariableMetrics}.
+    *
+    * @return a copy of the bucket counts
+    */
+   public long[] getParseLatencyBuckets() {
+      return this.parseLatencyBuckets.clone();
+   }
+
+   /**
+    * Estimates a parse latency percentile as the upper bound of the histogram bucket it falls into.
+    *
+    * @param percentile the percentile between 0 and 100, e.g. 99
+    * @return the estimated latency in nanoseconds, or 0 if nothing was parsed
+    */
+   public long parseLatencyPercentile(double percentile) {
+      long total = 0;
+      for(long count : this.parseLatencyBuckets) {
+         total += count;
+      }
+
+      if(total == 0) {
+         return 0L;
+      }
+
+      long rank = Math.max((long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0), 1L);
+      for(int i = 0; i < this.parseLatencyBuckets.length; ++i) {
+         rank -= this.parseLatencyBuckets[i];
+         if(rank <= 0) {
+            return (1L << (i + 1)) - 1;
+         }
+      }
+
+      return Long.MAX_VALUE;
+   }
+
+   @Override
+   public String toString() {
+      return this.name + "{reads=" + this.reads + ", writes=" + this.writes + ", parses=" + this.parses
+            + ", parseFailures=" + this.parseFailures + ", meanParseNanos=" + this.getMeanParseNanos() + "}";
+   }
+}
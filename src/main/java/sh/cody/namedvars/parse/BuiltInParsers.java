@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The parsers of primitive values used by {@link SimpleParserProvider}, which decode ranges of a
+ * {@link CharSequence} and {@link ByteBuffer}s directly.
+ */
+final class BuiltInParsers {
+   static final BooleanParser BOOLEAN = new BooleanParser() {
+      @Override
+      public boolean parseBoolean(String str) {
+         return Boolean.parseBoolean(str);
+      }
+
+      @Override
+      public boolean parseBoolean(CharSequence seq, int start, int end) {
+         return CharSequences.parseBoolean(seq, start, end);
+      }
+
+      @Override
+      public boolean parseBoolean(ByteBuffer buffer) {
+         return CharSequences.parseBoolean(CharSequences.ascii(buffer), 0, buffer.remaining());
+      }
+   };
+
+   static final IntParser INT = new IntParser() {
+      @Override
+      public int parseInt(String str) {
+         return Integer.parseInt(str);
+      }
+
+      @Override
+      public int parseInt(CharSequence seq, int start, int end) {
+         return CharSequences.parseInt(seq, start, end);
+      }
+
+      @Override
+      public int parseInt(ByteBuffer buffer) {
+         return CharSequences.parseInt(CharSequences.ascii(buffer), 0, buffer.remaining());
+      }
+   };
+
+   static final LongParser LONG = new LongParser() {
+      @Override
+      public long parseLong(String str) {
+         return Long.parseLong(str);
+      }
+
+      @Override
+      public long parseLong(CharSequence seq, int start, int end) {
+         return CharSequences.parseLong(seq, start, end);
+      }
+
+      @Override
+      public long parseLong(ByteBuffer buffer) {
+         return CharSequences.parseLong(CharSequences.ascii(buffer), 0, buffer.remaining());
+      }
+   };
+
+   static final DoubleParser DOUBLE = new DoubleParser() {
+      @Override
+      public double parseDouble(String str) {
+         return Double.parseDouble(str);
+      }
+
+      @Override
+      public double parseDouble(CharSequence seq, int start, int end) {
+         return CharSequences.parseDouble(seq, start, end);
+      }
+
+      @Override
+      public double parseDouble(ByteBuffer buffer) {
+         return CharSequences.parseDouble(CharSequences.ascii(buffer), 0, buffer.remaining());
+      }
+   };
+
+   static final Parser<Byte> BYTE = new AsciiParser<Byte>() {
+      @Override
+      public Byte parse(CharSequence seq, int start, int end) {
+         return CharSequences.parseByte(seq, start, end);
+      }
+   };
+
+   static final Parser<Short> SHORT = new AsciiParser<Short>() {
+      @Override
+      public Short parse(CharSequence seq, int start, int end) {
+         return CharSequences.parseShort(seq, start, end);
+      }
+   };
+
+   static final Parser<Character> CHAR = new Parser<Character>() {
+      @Override
+      public Character parse(String str) {
+         return str.charAt(0);
+      }
+
+      @Override
+      public Character parse(CharSequence seq, int start, int end) {
+         if(start >= end) {
+            throw new StringIndexOutOfBoundsException("Cannot parse a character from an empty string.");
+         }
+
+         return seq.charAt(start);
+      }
+   };
+
+   static final Parser<Character> NULLABLE_CHAR = new Parser<Character>() {
+      @Override
+      public Character parse(String str) {
+         return (str != null && str.length() > 0) ? str.charAt(0) : null;
+      }
+
+      @Override
+      public Character parse(CharSequence seq, int start, int end) {
+         return start < end ? seq.charAt(start) : null;
+      }
+   };
+
+   static final Parser<String> STRING = String::valueOf;
+
+   static final Parser<Float> FLOAT = new AsciiParser<Float>() {
+      @Override
+      public Float parse(CharSequence seq, int start, int end) {
+         return CharSequences.parseFloat(seq, start, end);
+      }
+   };
+
+   private BuiltInParsers() {}
+
+   /**
+    * A parser of values whose textual representation is always ASCII, which are parsed from a {@link CharSequence}
+    * view of a {@link ByteBuffer} instead of decoding it.
+    *
+    * @param <T> the type of the parsed value
+    */
+   private abstract static class AsciiParser<T> implements Parser<T> {
+      @Override
+      public T parse(String str) {
+         if(str == null) {
+            throw new NumberFormatException("null");
+         }
+
+         return this.parse(str, 0, str.length());
+      }
+
+      @Override
+      public abstract T parse(CharSequence seq, int start, int end);
+
+      @Override
+      public T parse(ByteBuffer buffer) {
+         return this.parse(CharSequences.ascii(buffer), 0, buffer.remaining());
+      }
+   }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocation-free decoding of primitive values from ranges of a {@link CharSequence}.
+ *
+ * The methods accept the same input as their counterparts in the boxed types (e.g. {@link Long#parseLong(String)}),
+ * and only allocate when the input is invalid or, for floating point values, too precise for an exact fast path.
+ */
+final class CharSequences {
+   private static final double[] DOUBLE_POWERS_OF_TEN = {
+         1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+         1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+   };
+   private static final float[] FLOAT_POWERS_OF_TEN = {
+         1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+   };
+
+   private CharSequences() {}
+
+   /**
+    * Returns a view of the bytes between a buffer's position and limit as ISO-8859-1 characters. The view reads the
+    * buffer with absolute gets, so the buffer's position isn't changed.
+    *
+    * @param buffer a buffer
+    * @return a view of the buffer's remaining bytes
+    */
+   static CharSequence ascii(ByteBuffer buffer) {
+      return new ByteSequence(buffer, buffer.position(), buffer.remaining());
+   }
+
+   static boolean isNullLiteral(CharSequence seq, int start, int end) {
+      return start == end || regionEqualsIgnoreCase(seq, start, end, "null");
+   }
+
+   static boolean regionEqualsIgnoreCase(CharSequence seq, int start, int end, String str) {
+      if(end - start != str.length()) {
+         return false;
+      }
+
+      for(int i = start; i < end; ++i) {
+         char a = seq.charAt(i);
+         char b = str.charAt(i - start);
+         if(a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+               && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   static boolean parseBoolean(CharSequence seq, int start, int end) {
+      return regionEqualsIgnoreCase(seq, start, end, "true");
+   }
+
+   static byte parseByte(CharSequence seq, int start, int end) {
+      long value = parseLong(seq, start, end);
+      if(value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+         throw outOfRange(seq, start, end);
+      }
+
+      return (byte) value;
+   }
+
+   static short parseShort(CharSequence seq, int start, int end) {
+      long value = parseLong(seq, start, end);
+      if(value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+         throw outOfRange(seq, start, end);
+      }
+
+      return (short) value;
+   }
+
+   static int parseInt(CharSequence seq, int start, int end) {
+      long value = parseLong(seq, start, end);
+      if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+         throw invalid(seq, start, end);
+      }
+
+      return (int) value;
+   }
+
+   static long parseLong(CharSequence seq, int start, int end) {
+      if(start >= end) {
+         throw invalid(seq, start, end);
+      }
+
+      int i = start;
+      boolean negative = false;
+      char first = seq.charAt(i);
+
+      if(first == '-' || first == '+') {
+         negative = first == '-';
+         if(++i == end) {
+            throw invalid(seq, start, end);
+         }
+      }
+
+      // accumulate negatively so Long.MIN_VALUE can be represented.
+      long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+      long multiplyLimit = limit / 10;
+      long result = 0;
+
+      for(; i < end; ++i) {
+         int digit = Character.digit(seq.charAt(i), 10);
+         if(digit < 0 || result < multiplyLimit) {
+            throw invalid(seq, start, end);
+         }
+
+         result *= 10;
+         if(result < limit + digit) {
+            throw invalid(seq, start, end);
+         }
+
+         result -= digit;
+      }
+
+      return negative ? result : -result;
+   }
+
+   static double parseDouble(CharSequence seq, int start, int end) {
+      Decimal decimal = Decimal.of(seq, start, end, 15);
+
+      if(decimal != null && decimal.exponent >= -22 && decimal.exponent <= 22) {
+         // both operands are exact, so a single operation yields the correctly rounded result.
+         double value = decimal.exponent < 0 ? decimal.mantissa / DOUBLE_POWERS_OF_TEN[-decimal.exponent] :
+               decimal.mantissa * DOUBLE_POWERS_OF_TEN[decimal.exponent];
+         return decimal.negative ? -value : value;
+      }
+
+      return Double.parseDouble(seq.subSequence(start, end).toString());
+   }
+
+   static float parseFloat(CharSequence seq, int start, int end) {
+      Decimal decimal = Decimal.of(seq, start, end, 7);
+
+      if(decimal != null && decimal.exponent >= -10 && decimal.exponent <= 10) {
+         float value = decimal.exponent < 0 ? decimal.mantissa / FLOAT_POWERS_OF_TEN[-decimal.exponent] :
+               decimal.mantissa * FLOAT_POWERS_OF_TEN[decimal.exponent];
+         return decimal.negative ? -value : value;
+      }
+
+      return Float.parseFloat(seq.subSequence(start, end).toString());
+   }
+
+   private static NumberFormatException invalid(CharSequence seq, int start, int end) {
+      return new NumberFormatException("For input string: \"" + seq.subSequence(start, end) + "\"");
+   }
+
+   private static NumberFormatException outOfRange(CharSequence seq, int start, int end) {
+      return new NumberFormatException("Value out of range. Value:\"" + seq.subSequence(start, end) + "\"");
+   }
+
+   /**
+    * A plain decimal number ({@code [+-]digits[.digits][(e|E)[+-]digits]}) whose significant digits fit into a long.
+    * Instances are only created by {@link Decimal#of(CharSequence, int, int, int)}, which is small enough to be
+    * inlined so that escape analysis can eliminate the allocation.
+    */
+   private static final class Decimal {
+      private final boolean negative;
+      private final long mantissa;
+      private final int exponent;
+
+      private Decimal(boolean negative, long mantissa, int exponent) {
+         this.negative = negative;
+         this.mantissa = mantissa;
+         this.exponent = exponent;
+      }
+
+      /**
+       * Decodes a plain decimal number.
+       *
+       * @return the decimal or {@code null} if the input isn't a plain decimal with at most {@code maxDigits}
+       *         significant digits
+       */
+      private static Decimal of(CharSequence seq, int start, int end, int maxDigits) {
+         int i = start;
+         boolean negative = false;
+
+         if(i < end && (seq.charAt(i) == '-' || seq.charAt(i) == '+')) {
+            negative = seq.charAt(i++) == '-';
+         }
+
+         long mantissa = 0;
+         int digits = 0;
+         int exponent = 0;
+         boolean anyDigits = false;
+         boolean fraction = false;
+
+         for(; i < end; ++i) {
+            char c = seq.charAt(i);
+
+            if(c >= '0' && c <= '9') {
+               anyDigits = true;
+               if(mantissa != 0 || c != '0') {
+                  if(++digits > maxDigits) {
+                     return null;
+                  }
+
+                  mantissa = mantissa * 10 + (c - '0');
+               }
+
+               if(fraction) {
+                  --exponent;
+               }
+            } else if(c == '.' && !fraction) {
+               fraction = true;
+            } else {
+               break;
+            }
+         }
+
+         if(!anyDigits) {
+            return null;
+         }
+
+         if(i < end && (seq.charAt(i) == 'e' || seq.charAt(i) == 'E')) {
+            if(++i == end) {
+               return null;
+            }
+
+            boolean negativeExponent = false;
+            if(seq.charAt(i) == '-' || seq.charAt(i) == '+') {
+               negativeExponent = seq.charAt(i++) == '-';
+            }
+
+            if(i == end) {
+               return null;
+            }
+
+            int explicitExponent = 0;
+            for(; i < end; ++i) {
+               char c = seq.charAt(i);
+               if(c < '0' || c > '9' || explicitExponent > 1000) {
+                  return null;
+               }
+
+               explicitExponent = explicitExponent * 10 + (c - '0');
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+         }
+
+         if(i != end) {
+            return null;
+         }
+
+         return new Decimal(negative, mantissa, mantissa == 0 ? 0 : exponent);
+      }
+   }
+
+   /**
+    * A {@link CharSequence} view of a range of a {@link ByteBuffer}, one character per byte.
+    */
+   private static final class ByteSequence implements CharSequence {
+      private final ByteBuffer buffer;
+      private final int offset;
+      private final int length;
+
+      private ByteSequence(ByteBuffer buffer, int offset, int length) {
+         this.buffer = buffer;
+         this.offset = offset;
+         this.length = length;
+      }
+
+      @Override
+      public int length() {
+         return this.length;
+      }
+
+      @Override
+      public char charAt(int index) {
+         if(index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+         }
+
+         return (char) (this.buffer.get(this.offset + index) & 0xff);
+      }
+
+      @Override
+      public CharSequence subSequence(int start, int end) {
+         if(start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException(start + ", " + end);
+         }
+
+         return new ByteSequence(this.buffer, this.offset + start, end - start);
+      }
+
+      @Override
+      public String toString() {
+         char[] chars = new char[this.length];
+         for(int i = 0; i < this.length; ++i) {
+            chars[i] = this.charAt(i);
+         }
+
+         return new String(chars);
+      }
+   }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Parsers of delimited lists of values into collections, maps and arrays, e.g. {@code "80, 443, 8080"}.
+ *
+ * The text is split by a {@link Tokenizer} in a single pass, and each element is handed to its parser as a range of
+ * the input, so only elements containing escape sequences are copied. Primitive arrays are filled directly by an
+ * {@link IntParser}, {@link LongParser} or {@link DoubleParser} without boxing the elements. Text that only contains
+ * whitespace is parsed into an empty collection, map or array, and a {@code null} string is parsed into {@code null};
+ * an element that is exactly {@code ""} is an empty string, e.g. {@code "\"\""} is a list of one empty string.
+ *
+ * Collections and maps are returned unmodifiable and keep the order of their elements.
+ *
+ * @see Delimiters
+ */
+public final class CollectionParsers {
+   private CollectionParsers() {}
+
+   public static <T> Parser<List<T>> list(Parser<T> element) {
+      return list(element, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of lists.
+    *
+    * @param element the parser of the elements
+    * @param delimiters the delimiters
+    * @param <T> the type of the elements
+    * @return a parser of lists
+    */
+   public static <T> Parser<List<T>> list(Parser<T> element, Delimiters delimiters) {
+      return new CollectionParser<>(element, delimiters, ArrayList::new, Collections::unmodifiableList);
+   }
+
+   public static <T> Parser<Set<T>> set(Parser<T> element) {
+      return set(element, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of sets, which ignores duplicate elements.
+    *
+    * @param element the parser of the elements
+    * @param delimiters the delimiters
+    * @param <T> the type of the elements
+    * @return a parser of sets
+    */
+   public static <T> Parser<Set<T>> set(Parser<T> element, Delimiters delimiters) {
+      return new CollectionParser<>(element, delimiters, LinkedHashSet::new, Collections::unmodifiableSet);
+   }
+
+   public static <K, V> Parser<Map<K, V>> map(Parser<K> key, Parser<V> value) {
+      return map(key, value, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of maps. If a key appears more than once, its last value is kept.
+    *
+    * @param key the parser of the keys
+    * @param value the parser of the values
+    * @param delimiters the delimiters
+    * @param <K> the type of the keys
+    * @param <V> the type of the values
+    * @return a parser of maps
+    */
+   public static <K, V> Parser<Map<K, V>> map(Parser<K> key, Parser<V> value, Delimiters delimiters) {
+      return new MapParser<>(key, value, delimiters);
+   }
+
+   public static Parser<int[]> intArray() {
+      return intArray(BuiltInParsers.INT, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of int arrays.
+    *
+    * @param element the parser of the elements
+    * @param delimiters the delimiters
+    * @return a parser of int arrays
+    */
+   public static Parser<int[]> intArray(IntParser element, Delimiters delimiters) {
+      return new ArrayParser<int[]>(delimiters) {
+         @Override
+         int[] parse(Tokenizer tokenizer, char separator, int capacity) {
+            int[] values = new int[capacity];
+            int size = 0;
+
+            while(tokenizer.hasNext()) {
+               tokenizer.next(separator, separator);
+               if(size == values.length) {
+                  values = Arrays.copyOf(values, size * 2);
+               }
+
+               values[size++] = element.parseInt(tokenizer.text(), tokenizer.start(), tokenizer.end());
+            }
+
+            return size == values.length ? values : Arrays.copyOf(values, size);
+         }
+      };
+   }
+
+   public static Parser<long[]> longArray() {
+      return longArray(BuiltInParsers.LONG, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of long arrays.
+    *
+    * @param element the parser of the elements
+    * @param delimiters the delimiters
+    * @return a parser of long arrays
+    */
+   public static Parser<long[]> longArray(LongParser element, Delimiters delimiters) {
+      return new ArrayParser<long[]>(delimiters) {
+         @Override
+         long[] parse(Tokenizer tokenizer, char separator, int capacity) {
+            long[] values = new long[capacity];
+            int size = 0;
+
+            while(tokenizer.hasNext()) {
+               tokenizer.next(separator, separator);
+               if(size == values.length) {
+                  values = Arrays.copyOf(values, size * 2);
+               }
+
+               values[size++] = element.parseLong(tokenizer.text(), tokenizer.start(), tokenizer.end());
+            }
+
+            return size == values.length ? values : Arrays.copyOf(values, size);
+         }
+      };
+   }
+
+   public static Parser<double[]> doubleArray() {
+      return doubleArray(BuiltInParsers.DOUBLE, Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of double arrays.
+    *
+    * @param element the parser of the elements
+    * @param delimiters the delimiters
+    * @return a parser of double arrays
+    */
+   public static Parser<double[]> doubleArray(DoubleParser element, Delimiters delimiters) {
+      return new ArrayParser<double[]>(delimiters) {
+         @Override
+         double[] parse(Tokenizer tokenizer, char separator, int capacity) {
+            double[] values = new double[capacity];
+            int size = 0;
+
+            while(tokenizer.hasNext()) {
+               tokenizer.next(separator, separator);
+               if(size == values.length) {
+                  values = Arrays.copyOf(values, size * 2);
+               }
+
+               values[size++] = element.parseDouble(tokenizer.text(), tokenizer.start(), tokenizer.end());
+            }
+
+            return size == values.length ? values : Arrays.copyOf(values, size);
+         }
+      };
+   }
+
+   public static Parser<String[]> stringArray() {
+      return stringArray(Delimiters.DEFAULT);
+   }
+
+   /**
+    * Creates a parser of string arrays.
+    *
+    * @param delimiters the delimiters
+    * @return a parser of string arrays
+    */
+   public static Parser<String[]> stringArray(Delimiters delimiters) {
+      return new ArrayParser<String[]>(delimiters) {
+         @Override
+         String[] parse(Tokenizer tokenizer, char separator, int capacity) {
+            String[] values = new String[capacity];
+            int size = 0;
+
+            while(tokenizer.hasNext()) {
+               tokenizer.next(separator, separator);
+               if(size == values.length) {
+                  values = Arrays.copyOf(values, size * 2);
+               }
+
+               values[size++] = tokenizer.text().subSequence(tokenizer.start(), tokenizer.end()).toString();
+            }
+
+            return size == values.length ? values : Arrays.copyOf(values, size);
+         }
+      };
+   }
+
+   private static final class CollectionParser<T, C extends Collection<T>> implements Parser<C> {
+      private final Parser<T> element;
+      private final Delimiters delimiters;
+      private final Supplier<C> factory;
+      private final Function<C, C> wrapper;
+
+      private CollectionParser(Parser<T> element, Delimiters delimiters, Supplier<C> factory,
+                               Function<C, C> wrapper) {
+         this.element = Objects.requireNonNull(element);
+         this.delimiters = Objects.requireNonNull(delimiters);
+         this.factory = factory;
+         this.wrapper = wrapper;
+      }
+
+      @Override
+      public C parse(String str) {
+         return str == null ? null : this.parse(str, 0, str.length());
+      }
+
+      @Override
+      public C parse(CharSequence seq, int start, int end) {
+         Tokenizer tokenizer = new Tokenizer(seq, start, end, this.delimiters.getEscape());
+         char separator = this.delimiters.getSeparator();
+         C collection = this.factory.get();
+
+         while(tokenizer.hasNext()) {
+            tokenizer.next(separator, separator);
+            collection.add(this.element.parse(tokenizer.text(), tokenizer.start(), tokenizer.end()));
+         }
+
+         return this.wrapper.apply(collection);
+      }
+   }
+
+   private static final class MapParser<K, V> implements Parser<Map<K, V>> {
+      private final Parser<K> key;
+      private final Parser<V> value;
+      private final Delimiters delimiters;
+
+      private MapParser(Parser<K> key, Parser<V> value, Delimiters delimiters) {
+         this.key = Objects.requireNonNull(key);
+         this.value = Objects.requireNonNull(value);
+         this.delimiters = Objects.requireNonNull(delimiters);
+      }
+
+      @Override
+      public Map<K, V> parse(String str) {
+         return str == null ? null : this.parse(str, 0, str.length());
+      }
+
+      @Override
+      public Map<K, V> parse(CharSequence seq, int start, int end) {
+         Tokenizer tokenizer = new Tokenizer(seq, start, end, this.delimiters.getEscape());
+         char separator = this.delimiters.getSeparator();
+         char keyValueSeparator = this.delimiters.getKeyValueSeparator();
+         Map<K, V> map = new LinkedHashMap<>();
+
+         while(tokenizer.hasNext()) {
+            if(tokenizer.next(keyValueSeparator, separator) != keyValueSeparator) {
+               throw tokenizer.invalid("Missing '" + keyValueSeparator + "' after a key");
+            }
+
+            K key = this.key.parse(tokenizer.text(), tokenizer.start(), tokenizer.end());
+            tokenizer.next(separator, separator);
+            map.put(key, this.value.parse(tokenizer.text(), tokenizer.start(), tokenizer.end()));
+         }
+
+         return Collections.unmodifiableMap(map);
+      }
+   }
+
+   private abstract static class ArrayParser<A> implements Parser<A> {
+      private static final int MAX_INITIAL_CAPACITY = 16;
+
+      private final Delimiters delimiters;
+
+      private ArrayParser(Delimiters delimiters) {
+         this.delimiters = Objects.requireNonNull(delimiters);
+      }
+
+      abstract A parse(Tokenizer tokenizer, char separator, int capacity);
+
+      @Override
+      public A parse(String str) {
+         return str == null ? null : this.parse(str, 0, str.length());
+      }
+
+      @Override
+      public A parse(CharSequence seq, int start, int end) {
+         // every element but the last takes at least two characters, so short inputs get a small array.
+         int capacity = Math.min(MAX_INITIAL_CAPACITY, (end - start + 2) / 2);
+         return this.parse(new Tokenizer(seq, start, end, this.delimiters.getEscape()),
+               this.delimiters.getSeparator(), capacity);
+      }
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+/**
+ * The characters which delimit the elements of collections and arrays, and the keys and values of maps, in the text
+ * handled by {@link CollectionParsers} and {@link sh.cody.namedvars.format.CollectionFormatters}.
+ *
+ * Whitespace around elements, keys and values is ignored. The escape character makes the following character part of
+ * the element, including delimiters, whitespace and the escape character itself.
+ */
+public final class Delimiters {
+   /**
+    * Elements separated by {@code ','}, keys separated from values by {@code '='} and {@code '\\'} as the escape
+    * character, e.g. {@code "a=1, b=2, c\,d=3"}.
+    */
+   public static final Delimiters DEFAULT = new Delimiters(',', '=', '\\');
+
+   private final char separator;
+   private final char keyValueSeparator;
+   private final char escape;
+
+   /**
+    * Constructs a new set of delimiters.
+    *
+    * @param separator the character between elements
+    * @param keyValueSeparator the character between a map's keys and values
+    * @param escape the escape character
+    */
+   public Delimiters(char separator, char keyValueSeparator, char escape) {
+      if(separator == keyValueSeparator || separator == escape || keyValueSeparator == escape) {
+         throw new IllegalArgumentException("The delimiters must be distinct.");
+      }
+
+      if(Character.isWhitespace(separator) || Character.isWhitespace(keyValueSeparator)
+            || Character.isWhitespace(escape)) {
+         throw new IllegalArgumentException("The delimiters can't be whitespace.");
+      }
+
+      this.separator = separator;
+      this.keyValueSeparator = keyValueSeparator;
+      this.escape = escape;
+   }
+
+   public char getSeparator() {
+      return this.separator;
+   }
+
+   public char getKeyValueSeparator() {
+      return this.keyValueSeparator;
+   }
+
+   public char getEscape() {
+      return this.escape;
+   }
+}
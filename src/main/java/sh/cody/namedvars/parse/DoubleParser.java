@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link Parser} that can produce a double value without boxing it.
+ */
+@FunctionalInterface
+public interface DoubleParser extends Parser<Double> {
+   double parseDouble(String str);
+
+   default double parseDouble(CharSequence seq, int start, int end) {
+      return this.parseDouble(seq.subSequence(start, end).toString());
+   }
+
+   default double parseDouble(ByteBuffer buffer) {
+      return this.parseDouble(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString());
+   }
+
+   @Override
+   default Double parse(String str) {
+      return this.parseDouble(str);
+   }
+
+   @Override
+   default Double parse(CharSequence seq, int start, int end) {
+      return this.parseDouble(seq, start, end);
+   }
+
+   @Override
+   default Double parse(ByteBuffer buffer) {
+      return this.parseDouble(buffer);
+   }
+}
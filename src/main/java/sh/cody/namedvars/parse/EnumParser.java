@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+import sh.cody.namedvars.annotation.Alias;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A {@link Parser} of enum constants by name.
+ *
+ * Names are matched ignoring case, preferring an exact match. Constants may declare additional names with
+ * {@link Alias}, and the parser can optionally accept ordinals. All names are placed in a hash table of case-folded
+ * names when the parser is created, so matching neither allocates nor throws unless nothing matches.
+ *
+ * @param <E> the enum type
+ */
+public final class EnumParser<E extends Enum<E>> implements Parser<E> {
+   private final Class<E> type;
+   private final E[] constants;
+   private final boolean acceptOrdinals;
+   private final String[] names;
+   private final int[] hashes;
+   private final Object[] values;
+   private final int mask;
+
+   /**
+    * Constructs a new {@link EnumParser} that doesn't accept ordinals.
+    *
+    * @param type the enum type
+    */
+   public EnumParser(Class<E> type) {
+      this(type, false);
+   }
+
+   /**
+    * Constructs a new {@link EnumParser}.
+    *
+    * @param type the enum type
+    * @param acceptOrdinals whether a constant may be referred to by its ordinal when no name matches
+    */
+   public EnumParser(Class<E> type, boolean acceptOrdinals) {
+      this.type = Objects.requireNonNull(type);
+      this.constants = Objects.requireNonNull(type.getEnumConstants(), "Type must be an enum.");
+      this.acceptOrdinals = acceptOrdinals;
+
+      int entries = this.constants.length;
+      for(E constant : this.constants) {
+         entries += aliases(constant).length;
+      }
+
+      int capacity = Integer.highestOneBit(Math.max(entries, 1) * 2 - 1) << 1;
+      this.names = new String[capacity];
+      this.hashes = new int[capacity];
+      this.values = new Object[capacity];
+      this.mask = capacity - 1;
+
+      // names are inserted before aliases so that, within a probe sequence, a name precedes an equal alias.
+      for(E constant : this.constants) {
+         this.insert(constant.name(), constant);
+      }
+
+      for(E constant : this.constants) {
+         for(String alias : aliases(constant)) {
+            this.insert(alias, constant);
+         }
+      }
+   }
+
+   private static String[] aliases(Enum<?> constant) {
+      try {
+         Alias alias = constant.getDeclaringClass().getField(constant.name()).getAnnotation(Alias.class);
+         return alias == null ? new String[0] : alias.value();
+      } catch(NoSuchFieldException exception) {
+         throw new IllegalStateException("Enum constant has no field.", exception);
+      }
+   }
+
+   private void insert(String name, E constant) {
+      int hash = foldedHash(name, 0, name.length());
+      int index = hash & this.mask;
+
+      while(this.names[index] != null) {
+         index = (index + 1) & this.mask;
+      }
+
+      this.names[index] = name;
+      this.hashes[index] = hash;
+      this.values[index] = constant;
+   }
+
+   @Override
+   public E parse(String str) {
+      return this.parse(str, 0, str.length());
+   }
+
+   @SuppressWarnings("unchecked")
+   @Override
+   public E parse(CharSequence seq, int start, int end) {
+      int hash = foldedHash(seq, start, end);
+      Object caseInsensitiveMatch = null;
+
+      for(int index = hash & this.mask; this.names[index] != null; index = (index + 1) & this.mask) {
+         if(this.hashes[index] == hash && foldedEquals(seq, start, end, this.names[index])) {
+            if(regionEquals(seq, start, end, this.names[index])) {
+               return (E) this.values[index];
+            } else if(caseInsensitiveMatch == null) {
+               caseInsensitiveMatch = this.values[index];
+            }
+         }
+      }
+
+      if(caseInsensitiveMatch != null) {
+         return (E) caseInsensitiveMatch;
+      }
+
+      if(this.acceptOrdinals && start < end && end - start < 10) {
+         int ordinal = 0;
+         for(int i = start; i < end && ordinal >= 0; ++i) {
+            char c = seq.charAt(i);
+            ordinal = c >= '0' && c <= '9' ? ordinal * 10 + (c - '0') : -1;
+         }
+
+         if(ordinal >= 0 && ordinal < this.constants.length) {
+            return this.constants[ordinal];
+         }
+      }
+
+      throw new IllegalArgumentException("No enum constant " + this.type.getCanonicalName() + "."
+            + seq.subSequence(start, end));
+   }
+
+   @Override
+   public E parse(ByteBuffer buffer) {
+      // constant names may contain any Java letter, so only a view of pure ASCII input can be matched directly.
+      for(int i = buffer.position(); i < buffer.limit(); ++i) {
+         if(buffer.get(i) < 0) {
+            return Parser.super.parse(buffer);
+         }
+      }
+
+      return this.parse(CharSequences.ascii(buffer), 0, buffer.remaining());
+   }
+
+   private static char fold(char c) {
+      return Character.toLowerCase(Character.toUpperCase(c));
+   }
+
+   private static int foldedHash(CharSequence seq, int start, int end) {
+      int hash = 0;
+      for(int i = start; i < end; ++i) {
+         hash = 31 * hash + fold(seq.charAt(i));
+      }
+
+      // spread the higher bits, as the table is indexed by the lower ones.
+      return hash ^ (hash >>> 16);
+   }
+
+   private static boolean foldedEquals(CharSequence seq, int start, int end, String str) {
+      if(end - start != str.length()) {
+         return false;
+      }
+
+      for(int i = start; i < end; ++i) {
+         char a = seq.charAt(i);
+         char b = str.charAt(i - start);
+         if(a != b && fold(a) != fold(b)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   private static boolean regionEquals(CharSequence seq, int start, int end, String str) {
+      for(int i = start; i < end; ++i) {
+         if(seq.charAt(i) != str.charAt(i - start)) {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
@@ -22,17 +22,59 @@
 
 package sh.cody.namedvars.parse;
 
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Converts text into a variable's value.
+ *
+ * Only {@link Parser#parse(String)} has to be implemented; the overloads accepting a range of a {@link CharSequence}
+ * or a {@link ByteBuffer} fall back to it by default, but the built-in parsers decode from them directly so that no
+ * intermediate {@link String} is created.
+ *
+ * @param <T> the type of the parsed value
+ */
 public interface Parser<T> {
    T parse(String str);
 
+   /**
+    * Parses the characters between {@code start} (inclusive) and {@code end} (exclusive) of a sequence.
+    *
+    * @param seq a character sequence
+    * @param start the index of the first character
+    * @param end the index after the last character
+    * @return the parsed value
+    */
+   default T parse(CharSequence seq, int start, int end) {
+      return this.parse(seq.subSequence(start, end).toString());
+   }
+
+   /**
+    * Parses the UTF-8 encoded bytes between a buffer's position and limit. The buffer's position isn't changed.
+    *
+    * @param buffer a byte buffer
+    * @return the parsed value
+    */
+   default T parse(ByteBuffer buffer) {
+      return this.parse(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString());
+   }
+
    static <T> Parser<T> nullChecked(Parser<T> parser) {
-      return str -> {
-         if(str == null || "".equals(str) || "null".equalsIgnoreCase(str)) {
-            return null;
-         } else {
-            return parser.parse(str);
+      return new Parser<T>() {
+         @Override
+         public T parse(String str) {
+            return str == null ? null : this.parse(str, 0, str.length());
+         }
+
+         @Override
+         public T parse(CharSequence seq, int start, int end) {
+            return CharSequences.isNullLiteral(seq, start, end) ? null : parser.parse(seq, start, end);
+         }
+
+         @Override
+         public T parse(ByteBuffer buffer) {
+            CharSequence seq = CharSequences.ascii(buffer);
+            return CharSequences.isNullLiteral(seq, 0, seq.length()) ? null : parser.parse(buffer);
          }
       };
    }
@@ -22,7 +22,6 @@
 
 package sh.cody.namedvars.parse;
 
-import java.util.Optional;
 import java.util.function.Function;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
@@ -41,6 +40,6 @@ public abstract class ParserProvider {
    }
 
    protected static <T> Function<Class, Parser> parserFor(Class<T> parserType, Parser<T> parser) {
-      return type -> Optional.of(type).filter(parserType::isAssignableFrom).map(ignored -> parser).orElse(null);
+      return type -> parserType.isAssignableFrom(type) ? parser : null;
    }
 }
@@ -22,36 +22,84 @@
 
 package sh.cody.namedvars.parse;
 
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The default {@link ParserProvider}, which supports primitives, their boxed types, {@link String} and enums, as well
+ * as lists, sets and maps of strings and {@code int}, {@code long}, {@code double} and {@link String} arrays parsed by
+ * {@link CollectionParsers} with the {@link Delimiters#DEFAULT default delimiters}.
+ *
+ * The built-in parser of each class is resolved once and cached for the lifetime of the class, so matching is a
+ * constant time lookup. Parsers for additional classes can be registered with
+ * {@link SimpleParserProvider#register(Class, Parser)}; registered parsers take precedence over the built-in ones.
+ */
 @SuppressWarnings({"unchecked", "rawtypes"})
 public final class SimpleParserProvider extends ParserProvider {
+   private static final ClassValue<Parser<?>> BUILT_IN_PARSERS = new ClassValue<Parser<?>>() {
+      @Override
+      protected Parser<?> computeValue(Class<?> type) {
+         return builtIn(type);
+      }
+   };
+
+   private final Map<Class<?>, Parser<?>> registeredParsers = new ConcurrentHashMap<>();
+
+   /**
+    * Registers a parser for a class, replacing any parser previously registered for it.
+    *
+    * The parser is only matched to exactly this class, e.g. registering a parser for {@code Integer.class} doesn't
+    * affect {@code int.class}. Variables that were already created keep the parser they were created with.
+    *
+    * @param type the class
+    * @param parser the parser
+    * @param <T> the class' type
+    * @return this provider
+    */
+   public <T> SimpleParserProvider register(Class<T> type, Parser<T> parser) {
+      this.registeredParsers.put(type, parser);
+      return this;
+   }
+
    @Override
    public <T> Parser<T> match(Class<T> type) {
+      Parser<?> parser = this.registeredParsers.get(type);
+      return (Parser<T>) (parser != null ? parser : BUILT_IN_PARSERS.get(type));
+   }
+
+   private static <T> Parser<T> builtIn(Class<T> type) {
       return matcher(type,
-            parserFor(boolean.class, Boolean::parseBoolean),
-            parserFor(byte.class, Byte::parseByte),
-            parserFor(short.class, Short::parseShort),
-            parserFor(char.class, str -> str.charAt(0)),
-            parserFor(int.class, Integer::parseInt),
-            parserFor(long.class, Long::parseLong),
-            parserFor(float.class, Float::parseFloat),
-            parserFor(double.class, Double::parseDouble),
-            parserFor(Boolean.class, Parser.nullChecked(Boolean::parseBoolean)),
-            parserFor(Byte.class, Parser.nullChecked(Byte::parseByte)),
-            parserFor(Short.class, Parser.nullChecked(Short::parseShort)),
-            parserFor(Character.class, str -> (str != null && str.length() > 0) ? str.charAt(0) : null),
-            parserFor(Integer.class, Parser.nullChecked(Integer::parseInt)),
-            parserFor(Long.class, Parser.nullChecked(Long::parseLong)),
-            parserFor(Float.class, Parser.nullChecked(Float::parseFloat)),
-            parserFor(Double.class, Parser.nullChecked(Double::parseDouble)),
-            parserFor(String.class, String::valueOf),
-            parserFor(Enum.class, str -> {
-              try {
-                 return Enum.valueOf((Class) type, str);
-              } catch(IllegalArgumentException ignored) {
-                 // if the first lookup failed we'll try again in upper case.
-                 return Enum.valueOf((Class) type, str.toUpperCase());
-              }
-            })
+            parserFor(boolean.class, BuiltInParsers.BOOLEAN),
+            parserFor(byte.class, BuiltInParsers.BYTE),
+            parserFor(short.class, BuiltInParsers.SHORT),
+            parserFor(char.class, BuiltInParsers.CHAR),
+            parserFor(int.class, BuiltInParsers.INT),
+            parserFor(long.class, BuiltInParsers.LONG),
+            parserFor(float.class, BuiltInParsers.FLOAT),
+            parserFor(double.class, BuiltInParsers.DOUBLE),
+            parserFor(Boolean.class, Parser.nullChecked(BuiltInParsers.BOOLEAN)),
+            parserFor(Byte.class, Parser.nullChecked(BuiltInParsers.BYTE)),
+            parserFor(Short.class, Parser.nullChecked(BuiltInParsers.SHORT)),
+            parserFor(Character.class, BuiltInParsers.NULLABLE_CHAR),
+            parserFor(Integer.class, Parser.nullChecked(BuiltInParsers.INT)),
+            parserFor(Long.class, Parser.nullChecked(BuiltInParsers.LONG)),
+            parserFor(Float.class, Parser.nullChecked(BuiltInParsers.FLOAT)),
+            parserFor(Double.class, Parser.nullChecked(BuiltInParsers.DOUBLE)),
+            parserFor(String.class, BuiltInParsers.STRING),
+            exactly(List.class, (Parser) CollectionParsers.list(BuiltInParsers.STRING)),
+            exactly(Set.class, (Parser) CollectionParsers.set(BuiltInParsers.STRING)),
+            exactly(Map.class, (Parser) CollectionParsers.map(BuiltInParsers.STRING, BuiltInParsers.STRING)),
+            parserFor(int[].class, CollectionParsers.intArray()),
+            parserFor(long[].class, CollectionParsers.longArray()),
+            parserFor(double[].class, CollectionParsers.doubleArray()),
+            parserFor(String[].class, CollectionParsers.stringArray()),
+            parserFor(Enum.class, type.isEnum() ? new EnumParser<>((Class) type) : null)
       );
    }
+
+   private static <T> Function<Class, Parser> exactly(Class<T> parserType, Parser<T> parser) {
+      // unlike parserFor, implementations such as ArrayList aren't matched, since the parser creates its own instances.
+      return type -> type == parserType ? parser : null;
+   }
 }
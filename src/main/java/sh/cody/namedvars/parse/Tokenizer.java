@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.parse;
+
+/**
+ * Splits a range of a {@link CharSequence} into tokens in a single pass.
+ *
+ * A token without escape sequences is reported as a range of the input, so element parsers decode it in place; only
+ * tokens containing escape sequences are unescaped, into a builder that is reused for every token. A token that is
+ * exactly {@code ""}, without escape sequences, is the empty string.
+ */
+final class Tokenizer {
+   private static final int END = -1;
+
+   private final CharSequence seq;
+   private final int start;
+   private final int end;
+   private final char escape;
+   private int position;
+   private StringBuilder builder;
+   private CharSequence text;
+   private int tokenStart;
+   private int tokenEnd;
+
+   /**
+    * Constructs a new tokenizer. A range which only contains whitespace has no tokens.
+    *
+    * @param seq a character sequence
+    * @param start the index of the first character
+    * @param end the index after the last character
+    * @param escape the escape character
+    */
+   Tokenizer(CharSequence seq, int start, int end, char escape) {
+      this.seq = seq;
+      this.start = start;
+      this.end = end;
+      this.escape = escape;
+      this.position = skipWhitespace(seq, start, end) == end ? end + 1 : start;
+   }
+
+   boolean hasNext() {
+      return this.position <= this.end;
+   }
+
+   /**
+    * Reads the next token, which ends before the first unescaped {@code stop} or {@code other} character or at the end
+    * of the input. Leading and trailing unescaped whitespace isn't part of the token.
+    *
+    * @return the character that ended the token, or {@code -1} if it was ended by the end of the input
+    */
+   int next(char stop, char other) {
+      CharSequence seq = this.seq;
+      int i = skipWhitespace(seq, this.position, this.end);
+      int start = i;
+      int contentEnd = i;
+      StringBuilder builder = null;
+      int kept = 0;
+      int terminator = END;
+
+      while(i < this.end) {
+         char c = seq.charAt(i);
+
+         if(c == this.escape && i + 1 < this.end) {
+            if(builder == null) {
+               builder = this.builder();
+               builder.append(seq, start, i);
+            }
+
+            builder.append(seq.charAt(i + 1));
+            kept = builder.length();
+            i += 2;
+            continue;
+         }
+
+         if(c == stop || c == other) {
+            terminator = c;
+            break;
+         }
+
+         if(builder != null) {
+            builder.append(c);
+         }
+
+         ++i;
+
+         if(!Character.isWhitespace(c)) {
+            contentEnd = i;
+            kept = builder == null ? 0 : builder.length();
+         }
+      }
+
+      this.position = i + 1;
+
+      if(builder == null) {
+         this.text = seq;
+         this.tokenStart = start;
+         this.tokenEnd = isQuotedEmpty(seq, start, contentEnd) ? start : contentEnd;
+      } else {
+         builder.setLength(kept);
+         this.text = builder;
+         this.tokenStart = 0;
+         this.tokenEnd = kept;
+      }
+
+      return terminator;
+   }
+
+   /**
+    * @return the sequence containing the last token
+    */
+   CharSequence text() {
+      return this.text;
+   }
+
+   int start() {
+      return this.tokenStart;
+   }
+
+   int end() {
+      return this.tokenEnd;
+   }
+
+   IllegalArgumentException invalid(String message) {
+      return new IllegalArgumentException(message + " in \"" + this.seq.subSequence(this.start, this.end) + "\".");
+   }
+
+   private StringBuilder builder() {
+      if(this.builder == null) {
+         this.builder = new StringBuilder();
+      } else {
+         this.builder.setLength(0);
+      }
+
+      return this.builder;
+   }
+
+   private static boolean isQuotedEmpty(CharSequence seq, int start, int end) {
+      return end - start == 2 && seq.charAt(start) == '"' && seq.charAt(start + 1) == '"';
+   }
+
+   private static int skipWhitespace(CharSequence seq, int start, int end) {
+      while(start < end && Character.isWhitespace(seq.charAt(start))) {
+         ++start;
+      }
+
+      return start;
+   }
+}
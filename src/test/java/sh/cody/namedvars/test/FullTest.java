@@ -24,9 +24,35 @@ package sh.cody.namedvars.test;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import sh.cody.namedvars.Batch;
 import sh.cody.namedvars.Scope;
 import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.VariableKey;
+import sh.cody.namedvars.annotation.Alias;
+import sh.cody.namedvars.annotation.GenerateVariable;
+import sh.cody.namedvars.annotation.VariableImporters;
+import sh.cody.namedvars.delegate.*;
+import sh.cody.namedvars.event.Subscription;
 import sh.cody.namedvars.exception.ScopeException;
+import sh.cody.namedvars.format.SimpleFormatterProvider;
+import sh.cody.namedvars.metrics.ScopeMetrics;
+import sh.cody.namedvars.metrics.VariableMetricsSnapshot;
+import sh.cody.namedvars.parse.CollectionParsers;
+import sh.cody.namedvars.parse.Delimiters;
+import sh.cody.namedvars.parse.EnumParser;
+import sh.cody.namedvars.parse.SimpleParserProvider;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
 
 public class FullTest {
    @Test
@@ -52,6 +78,51 @@ public class FullTest {
       assertEquals(test.explicitNameDouble, 1.0, 0.000001);
    }
 
+   @Test
+   public void testFieldHandleDelegate() throws ScopeException {
+      Scope scope = new Scope();
+      StaticFieldHolder holder = new StaticFieldHolder();
+      scope.importAll(holder);
+
+      assertTrue(scope.get("instanceField").getDelegate() instanceof FieldHandleDelegate);
+      scope.get("instanceField").parse("42");
+      scope.get("staticField").parse("hello");
+      assertEquals(holder.instanceField, 42);
+      assertEquals(StaticFieldHolder.staticField, "hello");
+      assertEquals(scope.get("staticField").get(), "hello");
+
+      // static final fields are imported read-only
+      Variable<?> constant = scope.get("CONSTANT");
+      assertEquals(constant.get(), "fixed");
+      assertTrue(constant.isReadOnly());
+      assertFalse(scope.get("staticField").isReadOnly());
+      assertEquals(scope.get("RATIO").getDouble(), 0.5, 0.0);
+      try {
+         constant.parse("changed");
+         fail("Wrote to a static final field.");
+      } catch(RuntimeException ignored) {}
+      try {
+         scope.get("RATIO").setDouble(1.0);
+         fail("Wrote to a static final field.");
+      } catch(RuntimeException ignored) {}
+      assertEquals(scope.get("RATIO").getDouble(), 0.5, 0.0);
+   }
+
+   @Test
+   public void testGeneratedImporter() throws ScopeException {
+      assertNotNull(VariableImporters.find(ReflectiveImportTest.class));
+      assertNull(VariableImporters.find(FullTest.class));
+
+      Scope scope = new Scope();
+      ReflectiveImportTest test = new ReflectiveImportTest(scope);
+      Variable<?> variable = scope.get("int");
+      assertFalse(variable.getDelegate() instanceof FieldHandleDelegate);
+      assertTrue(variable.getDelegate() instanceof IntDelegate);
+      variable.parse("77");
+      assertEquals(test.explicitNameInt, 77);
+      assertEquals(scope.stream().count(), 16);
+   }
+
    @Test(expected = ScopeException.class)
    public void testDoubleAdd() throws ScopeException {
       Scope scope = new Scope();
@@ -66,6 +137,44 @@ public class FullTest {
       scope.create("test", String.class, "Foobar");
    }
 
+   @Test
+   public void testConcurrentAdd() throws Exception {
+      Scope scope = new Scope();
+      AtomicInteger added = new AtomicInteger();
+      int threads = 8;
+      int names = 1000;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> tasks = new ArrayList<>();
+
+      for(int thread = 0; thread < threads; ++thread) {
+         tasks.add(executor.submit(() -> {
+            start.await();
+
+            for(int i = 0; i < names; ++i) {
+               try {
+                  scope.create("variable" + i, int.class, i);
+                  added.incrementAndGet();
+               } catch(ScopeException ignored) {}
+
+               assertNotNull(scope.get("variable" + i));
+            }
+            return null;
+         }));
+      }
+
+      start.countDown();
+      executor.shutdown();
+
+      // rethrows any assertion that failed on an executor thread.
+      for(Future<?> task : tasks) {
+         task.get(30, TimeUnit.SECONDS);
+      }
+
+      assertEquals(added.get(), names);
+      assertEquals(scope.stream().count(), names);
+   }
+
    @Test
    public void testStringSet() throws ScopeException {
       StringSetTest stringSetTest = new StringSetTest();
@@ -94,6 +203,868 @@ public class FullTest {
       assertEquals(enumVar.get(), TestEnum.LIKE);
    }
 
+   @Test
+   public void testPrimitiveAccessors() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> integer = scope.create("integer", int.class);
+      Variable<Long> lng = scope.create("long", long.class, 5L);
+      Variable<Double> dbl = scope.create("double", double.class);
+      Variable<Boolean> bool = scope.create("boolean", boolean.class);
+      Variable<Integer> boxed = scope.create("boxed", Integer.class);
+      scope.create("short", Short.class);
+      scope.create("string", String.class);
+
+      assertTrue(integer.getDelegate() instanceof StoredIntDelegate);
+      assertEquals(integer.getInt(), 0);
+      integer.setInt(1337);
+      assertEquals(integer.getInt(), 1337);
+      integer.parse("-7");
+      assertEquals((int) integer.get(), -7);
+
+      assertEquals(lng.getLong(), 5L);
+      lng.parse("40000000000");
+      assertEquals(lng.getLong(), 40000000000L);
+
+      dbl.parse("1.337");
+      assertEquals(dbl.getDouble(), 1.337, 0.000001);
+
+      bool.parse("TRUE");
+      assertTrue(bool.getBoolean());
+
+      assertNull(boxed.get());
+      boxed.setInt(12);
+      assertEquals(boxed.getInt(), 12);
+
+      // values are converted to the variable's type, if that preserves them.
+      Variable<Long> boxedLong = scope.create("boxedLong", Long.class);
+      boxedLong.setInt(7);
+      assertEquals(boxedLong.get(), Long.valueOf(7));
+      Variable<Double> boxedDouble = scope.create("boxedDouble", Double.class);
+      boxedDouble.setLong(3);
+      assertEquals(boxedDouble.get(), Double.valueOf(3));
+      boxed.setDouble(4.0);
+      assertEquals(boxed.get(), Integer.valueOf(4));
+
+      for(Runnable lossy : new Runnable[] {
+            () -> boxed.setDouble(2.5),
+            () -> boxed.setLong(1L << 40),
+            () -> scope.get("short").setInt(70000),
+            () -> scope.get("string").setBoolean(true)
+      }) {
+         try {
+            lossy.run();
+            fail("Stored a value the variable's type can't hold.");
+         } catch(RuntimeException exception) {
+            assertTrue(exception.getMessage().contains("can't hold"));
+         }
+      }
+
+      assertEquals(boxed.get(), Integer.valueOf(4));
+
+      Scope imported = new Scope();
+      ReflectiveImportTest test = new ReflectiveImportTest(imported);
+      Variable<?> importedInt = imported.get("int");
+      assertTrue(importedInt.getDelegate() instanceof IntDelegate);
+      importedInt.setInt(5);
+      imported.get("double").parse("2.5");
+      assertEquals(test.explicitNameInt, 5);
+      assertEquals(test.explicitNameDouble, 2.5, 0.000001);
+      assertEquals(imported.get("long").getLong(), 40000000000L);
+   }
+
+   @Test
+   public void testParserRegistry() throws ScopeException {
+      SimpleParserProvider provider = new SimpleParserProvider();
+      assertSame(provider.match(int.class), new SimpleParserProvider().match(int.class));
+      assertSame(provider.match(TestEnum.class), provider.match(TestEnum.class));
+      assertNull(provider.match(Object.class));
+      assertNull(provider.match(Duration.class));
+
+      Scope scope = new Scope(provider.register(Duration.class, Duration::parse));
+      Variable<Duration> duration = scope.create("duration", Duration.class);
+      duration.parse("PT5S");
+      assertEquals(duration.get(), Duration.ofSeconds(5));
+   }
+
+   @Test
+   public void testRangeParsing() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> integer = scope.create("integer", int.class);
+      Variable<Long> lng = scope.create("long", Long.class);
+      Variable<Double> dbl = scope.create("double", double.class);
+      Variable<Float> flt = scope.create("float", float.class);
+      Variable<Boolean> bool = scope.create("boolean", boolean.class);
+      Variable<TestEnum> enumVar = scope.create("enum", TestEnum.class);
+      Variable<String> string = scope.create("string", String.class);
+
+      String line = "a=-2147483648;b=null;c=0.1;d=1.5e3;e=True;f=lIkE;g=h\u00e9llo";
+      integer.parse(line, 2, 13);
+      assertEquals(integer.getInt(), Integer.MIN_VALUE);
+      lng.parse(line, 16, 20);
+      assertNull(lng.get());
+      dbl.parse(line, 23, 26);
+      assertEquals(dbl.getDouble(), 0.1, 0.0);
+      flt.parse(line, 29, 34);
+      assertEquals(flt.get(), 1500.0f, 0.0f);
+      bool.parse(line, 37, 41);
+      assertTrue(bool.getBoolean());
+      enumVar.parse(line, 44, 48);
+      assertEquals(enumVar.get(), TestEnum.LIKE);
+
+      ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+      buffer.position(51);
+      string.parse(buffer);
+      assertEquals(string.get(), "h\u00e9llo");
+      assertEquals(buffer.position(), 51);
+      buffer.position(23).limit(26);
+      dbl.parse(buffer);
+      assertEquals(dbl.getDouble(), 0.1, 0.0);
+
+      for(String value : new String[] { "1e-7", "123456789.123456789", "-0.0", "4.9e-324", "1.7976931348623157E308",
+            "0x1p3", " 2.5", "NaN", "3d" }) {
+         dbl.parse(new StringBuilder(value), 0, value.length());
+         assertEquals(Double.doubleToLongBits(dbl.getDouble()), Double.doubleToLongBits(Double.parseDouble(value)));
+      }
+
+      for(String value : new String[] { "", "-", "+", "9223372036854775808", "1a", "2147483648" }) {
+         try {
+            integer.parse(value, 0, value.length());
+            fail("Parsed an invalid int: " + value);
+         } catch(NumberFormatException ignored) {}
+      }
+   }
+
+   @Test
+   public void testBatch() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> a = scope.create("a", int.class, 1);
+      Variable<String> b = scope.create("b", String.class, "one");
+      Variable<TestEnum> c = scope.create("c", TestEnum.class, TestEnum.I);
+
+      Map<String, String> values = new HashMap<>();
+      values.put("a", "2");
+      values.put("b", "two");
+      values.put("c", "pie");
+      scope.applyAll(values);
+      assertEquals(a.getInt(), 2);
+      assertEquals(b.get(), "two");
+      assertEquals(c.get(), TestEnum.PIE);
+
+      values.put("a", "3");
+      values.put("c", "cake");
+      try {
+         scope.applyAll(values);
+         fail("Applied an invalid value.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getCause() instanceof IllegalArgumentException);
+      }
+
+      assertEquals(a.getInt(), 2);
+      assertEquals(c.get(), TestEnum.PIE);
+
+      scope.add("failing", String.class, () -> "fixed", value -> {
+         throw new IllegalStateException("Read-only.");
+      });
+      try {
+         scope.batch().parse("a", "4").parse("b", "four").parse("failing", "value").apply();
+         fail("Committed to a failing delegate.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getCause() instanceof IllegalStateException);
+      }
+
+      assertEquals(a.getInt(), 2);
+      assertEquals(b.get(), "two");
+
+      String[] stored = {"kept"};
+      scope.add("storing", String.class, () -> stored[0], value -> {
+         stored[0] = value;
+         if("bad".equals(value)) {
+            throw new IllegalStateException("Stored, then failed.");
+         }
+      });
+      List<String> notified = new ArrayList<>();
+      scope.addListener(variable -> notified.add(variable.getName()));
+      try {
+         scope.batch().parse("a", "5").parse("storing", "bad").apply();
+         fail("Committed to a failing delegate.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getCause() instanceof IllegalStateException);
+      }
+
+      assertEquals(a.getInt(), 2);
+      assertEquals(stored[0], "kept");
+      assertTrue(notified.isEmpty());
+
+      scope.batch().parse("a", "6").parse("storing", "good").apply();
+      assertEquals(notified, Arrays.asList("a", "storing"));
+   }
+
+   @Test
+   public void testParallelBatch() throws ScopeException {
+      Scope scope = new Scope();
+      Batch batch = scope.batch().parallel(new ForkJoinPool(4));
+
+      for(int i = 0; i < 10000; ++i) {
+         scope.create("variable" + i, long.class);
+         batch.parse("variable" + i, String.valueOf(i * 3L));
+      }
+
+      batch.apply();
+      for(int i = 0; i < 10000; ++i) {
+         assertEquals(scope.get("variable" + i).getLong(), i * 3L);
+      }
+   }
+
+   @Test
+   public void testListeners() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> a = scope.create("a", int.class);
+      Variable<String> b = scope.create("b", String.class);
+      List<String> changes = new ArrayList<>();
+      List<Runnable> queued = new ArrayList<>();
+
+      Subscription variableSubscription = a.addListener(variable -> changes.add("a=" + variable.getInt()));
+      scope.addListener(variable -> changes.add("scope:" + variable.getName()));
+      scope.addListener(variable -> changes.add("queued:" + variable.getName() + "=" + variable.get()), queued::add,
+            true);
+
+      a.setInt(1);
+      a.parse("2");
+      b.set("x");
+      b.parse("y");
+      variableSubscription.cancel();
+      a.set(3);
+
+      assertEquals(changes, Arrays.asList("a=1", "scope:a", "a=2", "scope:a", "scope:b", "scope:b", "scope:a"));
+      assertEquals(queued.size(), 2);
+
+      changes.clear();
+      queued.forEach(Runnable::run);
+      assertEquals(changes, Arrays.asList("queued:a=3", "queued:b=y"));
+   }
+
+   @Test
+   public void testEnumParser() throws ScopeException {
+      EnumParser<Switch> parser = new EnumParser<>(Switch.class);
+      assertEquals(parser.parse("ON"), Switch.ON);
+      assertEquals(parser.parse("oFf"), Switch.OFF);
+      assertEquals(parser.parse("enabled"), Switch.ON);
+      assertEquals(parser.parse("YES"), Switch.ON);
+      assertEquals(parser.parse("x"), Switch.x);
+      assertEquals(parser.parse("X"), Switch.X);
+      assertEquals(parser.parse("line: no;", 6, 8), Switch.OFF);
+
+      try {
+         parser.parse("1");
+         fail("Parsed an ordinal without accepting ordinals.");
+      } catch(IllegalArgumentException ignored) {}
+
+      EnumParser<Switch> ordinalParser = new EnumParser<>(Switch.class, true);
+      assertEquals(ordinalParser.parse("1"), Switch.OFF);
+      assertEquals(ordinalParser.parse("disabled"), Switch.OFF);
+
+      try {
+         ordinalParser.parse("4");
+         fail("Parsed an ordinal that's out of range.");
+      } catch(IllegalArgumentException exception) {
+         assertTrue(exception.getMessage().endsWith("Switch.4"));
+      }
+
+      Variable<Switch> variable = new Scope().create("switch", Switch.class);
+      variable.parse("Disabled");
+      assertEquals(variable.get(), Switch.OFF);
+   }
+
+   @Test
+   public void testVariableKeys() throws ScopeException {
+      Scope scope = new Scope();
+      for(int i = 0; i < 100; ++i) {
+         scope.create("variable" + i, int.class, i);
+      }
+
+      VariableKey<Integer> key = scope.key("variable42", int.class);
+      assertEquals(key.getName(), "variable42");
+      assertSame(scope.get(key), scope.get("variable42"));
+      assertEquals(scope.get(key).getInt(), 42);
+      assertEquals(scope.size(), 100);
+
+      int expected = 0;
+      for(Variable<?> variable : scope) {
+         assertEquals(variable.getName(), "variable" + expected++);
+      }
+
+      try {
+         scope.key("variable42", long.class);
+         fail("Created a key of the wrong type.");
+      } catch(ScopeException ignored) {}
+
+      try {
+         new Scope().get(key);
+         fail("Resolved a key in a different scope.");
+      } catch(IllegalArgumentException ignored) {}
+   }
+
+   @Test
+   public void testChildScopes() throws ScopeException {
+      Scope root = new Scope();
+      Scope child = root.createChild();
+      Scope grandchild = child.createChild();
+      assertSame(grandchild.getParent(), child);
+      assertNull(root.getParent());
+
+      Variable<Integer> inherited = root.create("pool.size", int.class, 4);
+      assertSame(grandchild.get("pool.size"), inherited);
+      assertNull(grandchild.get("pool.missing"));
+      assertEquals(grandchild.size(), 0);
+
+      // adding to a scope in between invalidates the inherited lookup
+      Variable<Integer> shadow = child.create("pool.size", int.class, 8);
+      assertSame(grandchild.get("pool.size"), shadow);
+      assertSame(root.get("pool.size"), inherited);
+
+      VariableKey<Integer> key = grandchild.key("pool.size", int.class);
+      assertSame(key.getScope(), child);
+      assertSame(grandchild.get(key), shadow);
+
+      try {
+         root.get(key);
+         fail("Resolved a key of a child scope.");
+      } catch(IllegalArgumentException ignored) {}
+
+      NamespacedHolder holder = new NamespacedHolder();
+      grandchild.importAll(holder, "net.pool");
+      grandchild.get("net.pool.threads").parse("12");
+      grandchild.get("net.pool.name").parse("workers");
+      assertEquals(holder.threads, 12);
+      assertEquals(holder.name, "workers");
+      assertNull(grandchild.get("threads"));
+   }
+
+   @Test
+   public void testAtomicVariables() throws Exception {
+      Scope scope = new Scope();
+      Variable<Long> counter = scope.createAtomic("counter", long.class, 0L, MemoryOrder.RELEASE);
+      Variable<Integer> boxed = scope.createAtomic("boxed", Integer.class, 1000, MemoryOrder.VOLATILE);
+      Variable<Double> sum = scope.createAtomic("sum", double.class, null, MemoryOrder.VOLATILE);
+      Variable<Boolean> flag = scope.createAtomic("flag", boolean.class, false, MemoryOrder.RELEASE);
+      assertTrue(counter.getDelegate() instanceof AtomicLongDelegate);
+      assertTrue(boxed.getDelegate() instanceof AtomicValueDelegate);
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      List<Future<?>> futures = new ArrayList<>();
+      for(int i = 0; i < 4; ++i) {
+         futures.add(executor.submit(() -> {
+            for(int j = 0; j < 10000; ++j) {
+               counter.accumulateLong(1, Long::sum);
+               boxed.getAndUpdateInt(value -> value + 1);
+               sum.accumulateDouble(0.5, Double::sum);
+            }
+         }));
+      }
+      for(Future<?> future : futures) {
+         future.get();
+      }
+      executor.shutdown();
+
+      assertEquals(counter.getLong(), 40000L);
+      assertEquals(boxed.get(), Integer.valueOf(41000));
+      assertEquals(sum.getDouble(), 20000.0, 0.0);
+
+      // boxed values are compared with equals rather than by reference, 41000 is outside the Integer cache
+      assertTrue(boxed.compareAndSet(Integer.valueOf(41000), 7));
+      assertFalse(boxed.compareAndSetInt(41000, 8));
+      assertTrue(flag.compareAndSetBoolean(false, true));
+      assertFalse(flag.compareAndSet(false, true));
+      assertEquals(counter.accumulate(2L, Long::sum), Long.valueOf(40002L));
+      assertTrue(sum.compareAndSetDouble(20000.0, Double.NaN));
+      assertTrue(sum.compareAndSetDouble(Double.NaN, 1.0));
+
+      // boxed fallbacks convert the values to the variable's type
+      Variable<Long> wide = scope.createAtomic("wide", Long.class, 5L, MemoryOrder.VOLATILE);
+      assertEquals(wide.accumulateInt(1, Integer::sum), 6);
+      assertEquals(wide.get(), Long.valueOf(6L));
+      assertTrue(wide.compareAndSetInt(6, 9));
+      assertEquals(wide.get(), Long.valueOf(9L));
+      try {
+         boxed.accumulateDouble(0.5, Double::sum);
+         fail("Stored a fractional value in an Integer variable.");
+      } catch(RuntimeException ignored) {}
+      assertEquals(boxed.get(), Integer.valueOf(7));
+
+      // updates that leave the value unchanged don't notify listeners
+      AtomicInteger notifications = new AtomicInteger();
+      scope.addListener(variable -> notifications.incrementAndGet());
+      assertEquals(counter.getAndUpdate(value -> value), Long.valueOf(40002L));
+      assertEquals(counter.accumulateLong(0, Long::sum), 40002L);
+      assertEquals(boxed.accumulate(0, Integer::sum), Integer.valueOf(7));
+      assertEquals(boxed.getAndUpdateInt(value -> value), 7);
+      assertEquals(sum.accumulateDouble(1.0, Math::min), 1.0, 0.0);
+      assertEquals(notifications.get(), 0);
+      assertEquals(counter.accumulateLong(1, Long::sum), 40003L);
+      assertEquals(sum.getAndUpdateDouble(value -> -value), 1.0, 0.0);
+      assertEquals(notifications.get(), 2);
+
+      try {
+         scope.create("plain", int.class, 0).compareAndSetInt(0, 1);
+         fail("Updated a non-atomic variable atomically.");
+      } catch(RuntimeException ignored) {}
+   }
+
+   @Test
+   public void testFormatters() throws Exception {
+      Scope scope = new Scope(new SimpleParserProvider(), new SimpleFormatterProvider()
+            .register(Duration.class, (value, out) -> out.append(value.toMillis()).append("ms")));
+      Variable<Integer> number = scope.create("number", int.class, Integer.MIN_VALUE);
+      Variable<Long> big = scope.create("big", long.class, Long.MIN_VALUE);
+      Variable<Double> ratio = scope.create("ratio", double.class, 0.1 + 0.2);
+      Variable<Float> small = scope.create("small", float.class, 1.1f);
+      Variable<Character> letter = scope.create("letter", Character.class);
+      Variable<Integer> boxed = scope.create("boxed", Integer.class);
+      Variable<TestEnum> food = scope.create("food", TestEnum.class, TestEnum.PIE);
+      Variable<String> text = scope.create("text", String.class, "caf\u00e9 \ud83e\udd67");
+      scope.create("timeout", Duration.class, Duration.ofSeconds(2));
+      Variable<List> blank = scope.create("blank", List.class, Collections.singletonList(""));
+      Variable<List> quotes = scope.create("quotes", List.class, Collections.singletonList("\"\""));
+      scope.create("nothing", List.class, Collections.emptyList());
+
+      // the formatted text of every built-in type parses back into an equal value
+      for(Variable<?> variable : scope) {
+         if(variable.getType() == Duration.class) {
+            continue;
+         }
+
+         Object value = variable.get();
+         variable.parse(variable.toString());
+         assertEquals(variable.getName(), value, variable.get());
+      }
+
+      assertEquals(number.toString(), "-2147483648");
+      assertEquals(letter.toString(), "");
+      assertEquals(blank.toString(), "\"\"");
+      assertEquals(quotes.toString(), "\\\"\"");
+      assertEquals(boxed.toString(), "null");
+      assertEquals(scope.get("timeout").toString(), "2000ms");
+
+      StringBuilder builder = new StringBuilder();
+      ratio.format(builder);
+      small.format((Appendable) builder.append(','));
+      food.format(new StringWriter().append(' '));
+      assertEquals(builder.toString(), "0.30000000000000004,1.1");
+
+      ByteBuffer buffer = ByteBuffer.allocate(64);
+      number.format(buffer);
+      big.format(buffer.put((byte) ' '));
+      text.format(buffer.put((byte) ' '));
+      assertEquals(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+            "-2147483648 -9223372036854775808 " + text.get());
+
+      try {
+         big.format(ByteBuffer.allocate(4));
+         fail("Formatted into a buffer that is too small.");
+      } catch(BufferOverflowException ignored) {}
+
+      // unchanged values of immutable types reuse the last string
+      assertSame(number.toString(), number.toString());
+      number.setInt(42);
+      assertEquals(number.toString(), "42");
+   }
+
+   @Test
+   public void testInheritedImports() throws ScopeException {
+      assertNotNull(VariableImporters.find(ExtendedHolder.class));
+      assertNull(VariableImporters.find(PrivateHolder.class));
+
+      for(NamespacedHolder holder : new NamespacedHolder[] {new ExtendedHolder(), new PrivateHolder()}) {
+         for(int i = 0; i < 2; ++i) {
+            Scope scope = new Scope();
+            Variable<?>[] variables = scope.importAll(holder, "pool");
+            assertEquals(variables.length, 3);
+            assertEquals(variables[0].getName(), "pool.threads");
+            assertEquals(variables[1].getName(), "pool.name");
+            assertEquals(variables[2].getName(), "pool.limit");
+
+            scope.get("pool.threads").parse("3");
+            scope.get("pool.limit").parse("9");
+            assertEquals(holder.threads, 3);
+            assertEquals(scope.get("pool.limit").getLong(), 9L);
+         }
+      }
+   }
+
+   @Test
+   public void testMetrics() throws Exception {
+      Scope scope = new Scope();
+      Variable<Integer> unmetered = scope.create("unmetered", int.class, 1);
+      ScopeMetrics metrics = scope.enableMetrics();
+      assertSame(scope.enableMetrics(), metrics);
+
+      Variable<Integer> number = scope.create("number", int.class, 1);
+      Variable<String> text = scope.create("text", String.class, "a");
+      Variable<Long> counter = scope.createAtomic("counter", long.class, 0L, MemoryOrder.VOLATILE);
+      assertTrue(number.getDelegate() instanceof IntDelegate);
+      assertTrue(counter.getDelegate() instanceof AtomicDelegate);
+      assertNull(metrics.get("unmetered"));
+      unmetered.getInt();
+
+      number.getInt();
+      number.setInt(2);
+      number.parse("3");
+      try {
+         number.parse("three");
+         fail("Parsed an invalid number.");
+      } catch(NumberFormatException ignored) {}
+      text.get();
+      text.toString();
+      counter.accumulateLong(5, Long::sum);
+
+      VariableMetricsSnapshot snapshot = metrics.snapshot().get("number");
+      assertEquals(snapshot.getReads(), 1);
+      assertEquals(snapshot.getWrites(), 2);
+      assertEquals(snapshot.getParses(), 2);
+      assertEquals(snapshot.getParseFailures(), 1);
+      assertTrue(snapshot.parseLatencyPercentile(100) > 0);
+      assertEquals(metrics.snapshot().get("text").getReads(), 2);
+      assertEquals(metrics.get("counter").snapshot().getWrites(), 1);
+      assertEquals(new ArrayList<>(metrics.snapshot().keySet()), Arrays.asList("counter", "number", "text"));
+
+      ObjectName name = new ObjectName("sh.cody.namedvars:type=ScopeMetrics,name=test");
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      metrics.registerMBean(name);
+      try {
+         assertEquals(server.getAttribute(name, "TotalParseFailures"), 1L);
+         assertEquals(((Object[]) server.getAttribute(name, "Variables")).length, 3);
+         server.invoke(name, "reset", new Object[0], new String[0]);
+         assertEquals(metrics.getTotalWrites(), 0L);
+      } finally {
+         server.unregisterMBean(name);
+      }
+   }
+
+   @Test
+   public void testNameQueries() throws ScopeException {
+      Scope scope = new Scope();
+      for(String name : new String[] {"net.pool.size", "net.timeout", "db.timeout", "net.pool.timeout", "netmask",
+            "db.pool.timeout", "\uffffmax", "\uffff\uffff"}) {
+         scope.create(name, String.class, name);
+      }
+
+      assertEquals(names(scope.byPrefix("net.")), "net.pool.size,net.pool.timeout,net.timeout");
+      assertEquals(names(scope.byPrefix("db.pool.timeout")), "db.pool.timeout");
+      assertEquals(names(scope.byPrefix("\uffff")), "\uffffmax,\uffff\uffff");
+      assertEquals(names(scope.byPrefix("missing")), "");
+      assertEquals(scope.byPrefix("").count(), scope.size());
+      assertEquals(names(scope.glob("*.pool.timeout")), "db.pool.timeout,net.pool.timeout");
+      assertEquals(names(scope.glob("net?*")), "net.pool.size,net.pool.timeout,net.timeout,netmask");
+      assertEquals(names(scope.glob("*timeout*")), "db.pool.timeout,db.timeout,net.pool.timeout,net.timeout");
+      assertEquals(names(scope.glob("net.timeout")), "net.timeout");
+      assertEquals(names(scope.glob("net.?ool.*e")), "net.pool.size");
+
+      String previous = "";
+      for(Variable<?> variable : (Iterable<Variable<?>>) scope.sorted()::iterator) {
+         assertTrue(variable.getName().compareTo(previous) > 0);
+         previous = variable.getName();
+      }
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void testCollectionParsers() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<List> list = scope.create("list", List.class);
+      Variable<Set> set = scope.create("set", Set.class);
+      Variable<Map> map = scope.create("map", Map.class);
+      Variable<int[]> ports = scope.create("ports", int[].class);
+      Variable<double[]> weights = scope.create("weights", double[].class);
+      Variable<String[]> hosts = scope.create("hosts", String[].class);
+
+      list.parse(" a , b\\,c ,\\ d\\ ,, e");
+      assertEquals(Arrays.asList("a", "b,c", " d ", "", "e"), list.get());
+      assertEquals(list.toString(), "a, b\\,c, \\ d\\ , , e");
+      list.parse(list.toString());
+      assertEquals(Arrays.asList("a", "b,c", " d ", "", "e"), list.get());
+      list.parse(" \"\" ");
+      assertEquals(Collections.singletonList(""), list.get());
+      list.parse("\"\", a\"\", \\\"\"");
+      assertEquals(Arrays.asList("", "a\"\"", "\"\""), list.get());
+
+      set.parse("x, y, x");
+      assertEquals(new LinkedHashSet<>(Arrays.asList("x", "y")), set.get());
+      map.parse("a = 1, b\\=c = 2=3");
+      assertEquals("{a=1, b=c=2=3}", map.get().toString());
+      assertEquals(map.toString(), "a=1, b\\=c=2\\=3");
+
+      ports.parse("80, 443,8080");
+      assertArrayEquals(new int[] {80, 443, 8080}, ports.get());
+      ports.parse("  ");
+      assertEquals(0, ports.get().length);
+      weights.parse("0.5,1e3");
+      assertArrayEquals(new double[] {0.5, 1000}, weights.get(), 0);
+      assertEquals(weights.toString(), "0.5, 1000.0");
+      hosts.parse("a.example, b.example");
+      assertArrayEquals(new String[] {"a.example", "b.example"}, hosts.get());
+      hosts.set(new String[] {""});
+      hosts.parse(hosts.toString());
+      assertArrayEquals(new String[] {""}, hosts.get());
+
+      StringBuilder many = new StringBuilder();
+      for(int i = 0; i < 1000; ++i) {
+         many.append(i == 0 ? "" : ";").append(i);
+      }
+
+      int[] parsed = CollectionParsers.intArray(Integer::parseInt, new Delimiters(';', ':', '^'))
+            .parse(many.toString());
+      assertEquals(1000, parsed.length);
+      assertEquals(999, parsed[999]);
+
+      Map<String, Integer> typed = CollectionParsers.map(String::valueOf, Integer::valueOf).parse("one=1,two=2");
+      assertEquals(Integer.valueOf(2), typed.get("two"));
+
+      try {
+         map.parse("a=1, b");
+         fail("Parsed a map entry without a value.");
+      } catch(IllegalArgumentException exception) {
+         assertTrue(exception.getMessage().contains("a=1, b"));
+      }
+   }
+
+   @Test
+   public void testCachingVariables() throws Exception {
+      Scope scope = new Scope();
+      scope.enableMetrics();
+      AtomicInteger computations = new AtomicInteger();
+      CountDownLatch computing = new CountDownLatch(1);
+
+      Variable<Integer> lazy = scope.createLazy("lazy", Integer.class, () -> {
+         try {
+            computing.await();
+         } catch(InterruptedException exception) {
+            throw new RuntimeException(exception);
+         }
+         return computations.incrementAndGet();
+      });
+      assertEquals(0, computations.get());
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         List<Future<Integer>> reads = new ArrayList<>();
+         for(int i = 0; i < 4; ++i) {
+            reads.add(executor.submit(lazy::get));
+         }
+
+         computing.countDown();
+         for(Future<Integer> read : reads) {
+            assertEquals(Integer.valueOf(1), read.get());
+         }
+      } finally {
+         executor.shutdown();
+      }
+
+      assertEquals(1, computations.get());
+      lazy.set(7);
+      assertEquals(Integer.valueOf(7), lazy.get());
+      lazy.invalidate();
+      assertEquals(Integer.valueOf(2), lazy.get());
+
+      int[] source = {10};
+      AtomicInteger reads = new AtomicInteger();
+      Variable<Integer> memoized = scope.createMemoized("memoized", Integer.class, () -> {
+         reads.incrementAndGet();
+         return source[0];
+      }, value -> source[0] = value, null);
+
+      assertEquals(Integer.valueOf(10), memoized.get());
+      source[0] = 11;
+      assertEquals(Integer.valueOf(10), memoized.get());
+      memoized.invalidate();
+      assertEquals(Integer.valueOf(11), memoized.get());
+      memoized.parse("12");
+      assertEquals(Integer.valueOf(12), memoized.get());
+      assertEquals(3, reads.get());
+
+      Variable<Long> expiring = scope.createMemoized("expiring", Long.class, System::nanoTime, null,
+            Duration.ofMillis(1));
+      long first = expiring.get();
+      Thread.sleep(5);
+      assertNotEquals(first, (long) expiring.get());
+
+      assertTrue(expiring.isReadOnly());
+      assertFalse(memoized.isReadOnly());
+      try {
+         expiring.set(0L);
+         fail("Set a read-only variable.");
+      } catch(RuntimeException exception) {
+         assertEquals(exception.getMessage(), "This variable is read-only.");
+      }
+
+      try {
+         scope.create("plain", int.class).invalidate();
+         fail("Invalidated a variable without a cached value.");
+      } catch(RuntimeException exception) {
+         assertEquals(exception.getMessage(), "This variable does not cache its value.");
+      }
+   }
+
+   @Test
+   public void testDerivedVariables() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> cores = scope.create("cores", int.class, 4);
+      Variable<Integer> perCore = scope.create("pool.perCore", int.class, 2);
+      AtomicInteger maxComputations = new AtomicInteger();
+      AtomicInteger labelComputations = new AtomicInteger();
+
+      Variable<Integer> max = scope.createDerived("pool.max", int.class, () -> {
+         maxComputations.incrementAndGet();
+         return cores.getInt() * perCore.getInt();
+      }, cores, perCore);
+      Variable<String> label = scope.createDerived("pool.label", String.class, () -> {
+         labelComputations.incrementAndGet();
+         return cores.get() + " cores, " + max.get() + " threads";
+      }, max, cores);
+      List<String> changes = new ArrayList<>();
+      label.addListener(variable -> changes.add((String) variable.get()));
+
+      assertEquals(8, max.getInt());
+      assertEquals("4 cores, 8 threads", label.get());
+
+      cores.setInt(8);
+      assertEquals(16, max.getInt());
+      assertEquals("8 cores, 16 threads", label.get());
+      assertEquals(2, maxComputations.get());
+      assertEquals(2, labelComputations.get());
+
+      scope.batch().parse("cores", "2").parse("pool.perCore", "3").apply();
+      assertEquals(6, max.getInt());
+      assertEquals(3, maxComputations.get());
+      assertEquals(3, labelComputations.get());
+
+      perCore.setInt(3);
+      assertEquals(4, maxComputations.get());
+      assertEquals(3, labelComputations.get());
+      assertEquals(Arrays.asList("8 cores, 16 threads", "2 cores, 6 threads"), changes);
+
+      try {
+         max.setInt(1);
+         fail("Set a derived variable.");
+      } catch(RuntimeException exception) {
+         assertEquals(6, max.getInt());
+      }
+
+      try {
+         scope.batch().parse("cores", "1").parse("pool.max", "1").apply();
+         fail("Set a derived variable in a batch.");
+      } catch(ScopeException exception) {
+         assertEquals(2, cores.getInt());
+         assertEquals(6, max.getInt());
+      }
+
+      try {
+         new Scope().createDerived("other", int.class, cores::get, cores);
+         fail("Derived a variable from another scope.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getMessage().contains("'cores'"));
+      }
+   }
+
+   @Test
+   public void testWriteBehindVariables() throws Exception {
+      Scope scope = new Scope();
+      int[] size = {1};
+      List<Integer> resizes = Collections.synchronizedList(new ArrayList<>());
+      Variable<Integer> pool = scope.add("pool.size", Integer.class, null, new WriteBehindDelegate<>(
+            Delegate.fromGetterAndSetter(() -> size[0], value -> {
+               resizes.add(value);
+               size[0] = value;
+            })));
+
+      for(int i = 2; i <= 10; ++i) {
+         pool.set(i);
+      }
+
+      assertEquals(Integer.valueOf(10), pool.get());
+      assertTrue(resizes.isEmpty());
+      scope.flush();
+      assertEquals(Collections.singletonList(10), resizes);
+      scope.flush();
+      assertEquals(1, resizes.size());
+
+      List<Integer> writes = Collections.synchronizedList(new ArrayList<>());
+      Variable<Integer> index = scope.addWriteBehind("index.size", Integer.class, () -> 0, writes::add,
+            Duration.ofMillis(20));
+      for(int i = 0; i < 100; ++i) {
+         index.set(i);
+      }
+
+      assertEquals(Integer.valueOf(99), index.get());
+      for(int i = 0; i < 500 && writes.isEmpty(); ++i) {
+         Thread.sleep(10);
+      }
+
+      // a slow machine may have flushed in the middle of the burst.
+      index.flush();
+      assertEquals(Integer.valueOf(99), writes.get(writes.size() - 1));
+      assertTrue(writes.size() < 100);
+
+      // a failed scheduled flush is reported and retried without another write
+      List<RuntimeException> errors = Collections.synchronizedList(new ArrayList<>());
+      List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+      WriteBehindDelegate<Integer> flaky = new WriteBehindDelegate<Integer>(
+            Delegate.fromGetterAndSetter(() -> 0, value -> {
+               if(errors.isEmpty()) {
+                  throw new RuntimeException("The disk is full.");
+               }
+               applied.add(value);
+            }), Duration.ofMillis(20)).onError(errors::add);
+      flaky.set(3);
+      for(int i = 0; i < 500 && flaky.isPending(); ++i) {
+         Thread.sleep(10);
+      }
+
+      assertEquals(Collections.singletonList(3), applied);
+      assertEquals(1, errors.size());
+      assertEquals("The disk is full.", errors.get(0).getMessage());
+   }
+
+   private static String names(Stream<Variable<?>> variables) {
+      return variables.map(Variable::getName).collect(Collectors.joining(","));
+   }
+
+   public enum Switch {
+      @Alias({"enabled", "yes"})
+      ON,
+      @Alias({"disabled", "no"})
+      OFF,
+      x,
+      X
+   }
+
+   public static class StaticFieldHolder {
+      @GenerateVariable
+      private int instanceField;
+      @GenerateVariable
+      private static String staticField;
+      @GenerateVariable
+      private static final String CONSTANT = "fixed";
+      @GenerateVariable
+      private static final double RATIO = 0.5;
+   }
+
+   public static class NamespacedHolder {
+      @GenerateVariable
+      int threads;
+      @GenerateVariable
+      private String name;
+   }
+
+   public static class ExtendedHolder extends NamespacedHolder {
+      @GenerateVariable("limit")
+      long maximum;
+   }
+
+   private static class PrivateHolder extends NamespacedHolder {
+      @GenerateVariable
+      private long limit;
+   }
+
    public enum TestEnum {
       I,
       LIKE,
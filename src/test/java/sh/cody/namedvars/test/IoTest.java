@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2020 - Maxwell Cody <maxwell@cody.sh>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sh.cody.namedvars.test;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import sh.cody.namedvars.Scope;
+import sh.cody.namedvars.Variable;
+import sh.cody.namedvars.exception.ScopeException;
+import sh.cody.namedvars.io.*;
+import sh.cody.namedvars.parse.SimpleParserProvider;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+
+public class IoTest {
+   private static final String PROPERTIES = "# comment\n"
+         + "! another comment \\\n"
+         + "   plain = value one  \r\n"
+         + "colon:value\n"
+         + "space value\n"
+         + "escaped\\=key=tab\\there\n"
+         + "unicode=\\u0041\\u00e9\n"
+         + "continued = first, \\\n"
+         + "             second\r"
+         + "empty\n"
+         + "\n"
+         + "number = -42\n"
+         + "flag : true\n"
+         + "last=no newline";
+
+   @Test
+   public void testLoaderMatchesProperties() throws IOException, ScopeException {
+      assertLoadsLikeProperties(PROPERTIES);
+      // the blank line ends the continued entry, so the next line is a comment again
+      assertLoadsLikeProperties("a=1\\\n\n# c\nb=2\n");
+      assertLoadsLikeProperties("a=1\\\r\n   \r\n! c\r\nb=2");
+   }
+
+   private static void assertLoadsLikeProperties(String text) throws IOException, ScopeException {
+      Properties properties = new Properties();
+      properties.load(new StringReader(text));
+
+      Scope scope = new Scope();
+      for(String name : properties.stringPropertyNames()) {
+         scope.create(name, String.class);
+      }
+
+      List<String> unknownKeys = new ScopeLoader(scope).unknownKeys(UnknownKeyPolicy.COLLECT)
+            .load(new StringReader(text));
+
+      assertTrue(unknownKeys.toString(), unknownKeys.isEmpty());
+      assertEquals(scope.stream().count(), properties.size());
+      for(String name : properties.stringPropertyNames()) {
+         assertEquals(name, properties.getProperty(name), scope.get(name).get());
+      }
+   }
+
+   @Test
+   public void testLoaderParsesTypes() throws IOException, ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> number = scope.create("number", int.class);
+      Variable<Boolean> flag = scope.create("flag", boolean.class);
+
+      List<String> unknownKeys = new ScopeLoader(scope).unknownKeys(UnknownKeyPolicy.COLLECT)
+            .load(new StringReader(PROPERTIES));
+
+      assertEquals(number.getInt(), -42);
+      assertTrue(flag.getBoolean());
+      assertEquals(unknownKeys.size(), 8);
+      assertTrue(unknownKeys.contains("escaped=key"));
+   }
+
+   @Test(expected = ScopeException.class)
+   public void testLoaderFailsOnUnknownKey() throws IOException, ScopeException {
+      new ScopeLoader(new Scope()).unknownKeys(UnknownKeyPolicy.FAIL).load(new StringReader("unknown=1"));
+   }
+
+   @Test
+   public void testLoaderReportsParseFailure() throws IOException {
+      Scope scope = new Scope();
+
+      try {
+         scope.create("number", int.class);
+         new ScopeLoader(scope).load(new StringReader("\n\nnumber=forty-two\n"));
+         fail("Loaded an invalid number.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getMessage().contains("line 3"));
+         assertTrue(exception.getCause() instanceof NumberFormatException);
+      }
+   }
+
+   @Test
+   public void testSnapshotRoundTrip() throws IOException, ScopeException {
+      Scope scope = snapshotScope();
+      scope.get("int").setInt(-7);
+      scope.get("long").setLong(Long.MIN_VALUE);
+      scope.get("double").setDouble(0.1 + 0.2);
+      scope.get("boolean").setBoolean(true);
+      scope.get("float").set(Float.intBitsToFloat(0x7fc00123));
+      scope.get("char").set('\u00e9');
+      scope.get("string").set("caf\u00e9");
+      scope.get("boxed").set(null);
+      scope.get("state").set(Thread.State.BLOCKED);
+      scope.get("timeout").set(Duration.ofMillis(1500));
+
+      Path file = Files.createTempFile("scope", ".snapshot");
+      try {
+         new ScopeSnapshot(scope).write(file);
+
+         Scope restored = snapshotScope();
+         restored.create("extra", int.class, 5);
+         assertTrue(new ScopeSnapshot(restored).unknownKeys(UnknownKeyPolicy.FAIL).restore(file).isEmpty());
+
+         for(Variable<?> variable : scope) {
+            assertEquals(variable.getName(), variable.get(), restored.get(variable.getName()).get());
+         }
+         assertEquals(Float.floatToRawIntBits((Float) restored.get("float").get()), 0x7fc00123);
+         assertEquals(restored.get("extra").getInt(), 5);
+
+         Scope partial = new Scope();
+         partial.create("int", int.class);
+         List<String> unknownKeys = new ScopeSnapshot(partial).unknownKeys(UnknownKeyPolicy.COLLECT).restore(file);
+         assertEquals(partial.get("int").getInt(), -7);
+         assertEquals(unknownKeys.size(), scope.size() - 1);
+      } finally {
+         Files.delete(file);
+      }
+   }
+
+   @Test
+   public void testSnapshotRejectsMismatches() throws IOException, ScopeException {
+      Scope scope = new Scope();
+      scope.create("value", long.class, 42L);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new ScopeSnapshot(scope).write(out);
+      byte[] bytes = out.toByteArray();
+
+      Scope other = new Scope();
+      other.create("value", int.class);
+      try {
+         new ScopeSnapshot(other).restore(ByteBuffer.wrap(bytes));
+         fail("Restored a long into an int variable.");
+      } catch(ScopeException ignored) {}
+
+      try {
+         new ScopeSnapshot(scope).restore(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+         fail("Restored a truncated snapshot.");
+      } catch(ScopeException ignored) {}
+
+      try {
+         new ScopeSnapshot(scope).restore(ByteBuffer.wrap(new byte[16]));
+         fail("Restored something that isn't a snapshot.");
+      } catch(ScopeException ignored) {}
+   }
+
+   private static Scope snapshotScope() throws ScopeException {
+      Scope scope = new Scope(new SimpleParserProvider().register(Duration.class, Duration::parse));
+      scope.create("int", int.class);
+      scope.create("long", long.class);
+      scope.create("double", double.class);
+      scope.create("boolean", boolean.class);
+      scope.create("float", float.class);
+      scope.create("char", char.class, 'a');
+      scope.create("string", String.class);
+      scope.create("boxed", Integer.class, 3);
+      scope.create("state", Thread.State.class);
+      scope.create("timeout", Duration.class);
+      return scope;
+   }
+
+   @Test
+   public void testExportRoundTrip() throws IOException, ScopeException {
+      for(ScopeFormat format : ScopeFormat.values()) {
+         Scope scope = exportScope();
+         scope.get("text").set(" leading, \"quoted\" = value:#!\\ \t\r\ntrailing \u00e9\u0001 ");
+         scope.get("empty").set("");
+         scope.get("missing").set(null);
+         scope.get("count").setInt(-12);
+         scope.get("ratio").setDouble(Double.NaN);
+         scope.get("weight").set(null);
+         scope.get("flag").setBoolean(true);
+         scope.get("state").set(Thread.State.WAITING);
+         scope.get("key with spaces=:").set("x");
+
+         ByteArrayOutputStream out = new ByteArrayOutputStream();
+         new ScopeExporter(scope).format(format).export(out);
+
+         Scope loaded = exportScope();
+         List<String> unknownKeys = new ScopeLoader(loaded).format(format).unknownKeys(UnknownKeyPolicy.FAIL)
+               .load(new InputStreamReader(new ByteArrayInputStream(out.toByteArray()), "UTF-8"));
+         assertTrue(unknownKeys.isEmpty());
+
+         for(Variable<?> variable : scope) {
+            Object expected = variable.get();
+            if(format == ScopeFormat.PROPERTIES && variable.getName().equals("missing")) {
+               // the properties format has no null literal for strings.
+               expected = "null";
+            }
+
+            assertEquals(format + " " + variable.getName(), expected, loaded.get(variable.getName()).get());
+         }
+      }
+   }
+
+   @Test
+   public void testExportFormats() throws IOException, ScopeException {
+      Scope scope = exportScope();
+      scope.get("count").setInt(3);
+      scope.get("ratio").setDouble(0.5);
+
+      StringWriter json = new StringWriter();
+      new ScopeExporter(scope).format(ScopeFormat.JSON).names("*t*").types(int.class, double.class, Double.class)
+            .export(json);
+      assertEquals(json.toString(), "{\n  \"count\": 3,\n  \"ratio\": 0.5,\n  \"weight\": 1.5\n}\n");
+
+      StringWriter empty = new StringWriter();
+      new ScopeExporter(scope).format(ScopeFormat.JSON).filter(variable -> false).export(empty);
+      assertEquals(empty.toString(), "{}\n");
+
+      StringWriter csv = new StringWriter();
+      new ScopeExporter(scope).format(ScopeFormat.CSV).names("count").export(csv);
+      assertEquals(csv.toString(), "name,type,value,description\r\ncount,int,3,\"A count, in units\"\r\n");
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      new ScopeExporter(scope).names("count").export(Channels.newChannel(bytes));
+      assertEquals(bytes.toString("UTF-8"), "# A count, in units\ncount=3\n");
+
+      try {
+         new ScopeLoader(scope).format(ScopeFormat.JSON).load(new StringReader("{\"count\": {\"nested\": 1}}"));
+         fail("Loaded a nested JSON object.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getMessage().contains("line 1"));
+      }
+
+      try {
+         new ScopeLoader(scope).format(ScopeFormat.CSV).load(new StringReader("name,value\r\n\r\ncount,\r\n"));
+         fail("Loaded null into a primitive variable.");
+      } catch(ScopeException exception) {
+         assertTrue(exception.getMessage().contains("line 3"));
+      }
+
+      // the properties format has no null literal, only some types read "null" back as null.
+      scope.get("missing").set(null);
+      scope.get("weight").set(null);
+      StringWriter nulls = new StringWriter();
+      new ScopeExporter(scope).names("*i*g*").descriptions(false).export(nulls);
+      assertEquals(nulls.toString(), "missing=null\nweight=null\n");
+      Scope loaded = exportScope();
+      new ScopeLoader(loaded).load(new StringReader(nulls.toString()));
+      assertEquals(loaded.get("missing").get(), "null");
+      assertNull(loaded.get("weight").get());
+
+      int[] reads = {0};
+      Scope counted = new Scope();
+      counted.add("counted", Integer.class, () -> ++reads[0] % 2 == 0 ? null : reads[0], value -> { });
+      for(ScopeFormat format : ScopeFormat.values()) {
+         StringWriter out = new StringWriter();
+         new ScopeExporter(counted).format(format).export(out);
+         assertFalse(out.toString().contains("null"));
+         reads[0] = 0;
+      }
+   }
+
+   @Test
+   public void testReadOnlyVariablesRoundTrip() throws IOException, ScopeException {
+      Scope scope = derivedScope();
+      scope.get("cores").setInt(8);
+
+      ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+      new ScopeSnapshot(scope).write(snapshot);
+      Scope restored = derivedScope();
+      assertTrue(new ScopeSnapshot(restored).unknownKeys(UnknownKeyPolicy.FAIL)
+            .restore(ByteBuffer.wrap(snapshot.toByteArray())).isEmpty());
+      assertEquals(16, restored.get("pool.max").getInt());
+
+      for(ScopeFormat format : ScopeFormat.values()) {
+         StringWriter out = new StringWriter();
+         new ScopeExporter(scope).format(format).export(out);
+         assertFalse(out.toString().contains("pool.max"));
+
+         Scope loaded = derivedScope();
+         new ScopeLoader(loaded).format(format).unknownKeys(UnknownKeyPolicy.FAIL)
+               .load(new StringReader(out.toString()));
+         assertEquals(16, loaded.get("pool.max").getInt());
+      }
+
+      Scope loaded = derivedScope();
+      new ScopeLoader(loaded).unknownKeys(UnknownKeyPolicy.FAIL).load(new StringReader("cores=3\npool.max=1\n"));
+      assertEquals(6, loaded.get("pool.max").getInt());
+   }
+
+   private static Scope derivedScope() throws ScopeException {
+      Scope scope = new Scope();
+      Variable<Integer> cores = scope.create("cores", int.class, 4);
+      scope.createDerived("pool.max", int.class, () -> cores.getInt() * 2, cores);
+      return scope;
+   }
+
+   @Test
+   public void testWatcherAppliesChangedEntries() throws IOException, ScopeException, InterruptedException {
+      Scope scope = new Scope();
+      scope.create("count", int.class);
+      scope.create("text", String.class);
+      scope.create("other", int.class);
+
+      Map<String, Integer> changes = new java.util.concurrent.ConcurrentHashMap<>();
+      scope.addListener(variable -> changes.merge(variable.getName(), 1, Integer::sum));
+      List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+
+      Path directory = Files.createTempDirectory("named-variables");
+      Path file = directory.resolve("scope.properties");
+      Files.write(file, "count=1\ntext=unchanged\n".getBytes("UTF-8"));
+
+      try(ScopeWatcher watcher = new ScopeWatcher(scope, file).debounce(Duration.ofMillis(20))
+            .onError(errors::add).start()) {
+         assertEquals(1, (int) scope.get("count").get());
+         assertEquals(1, (int) changes.get("text"));
+
+         Files.write(file, "count=2\ntext=unchanged\nother=5\nunknown=x\n".getBytes("UTF-8"));
+         for(int i = 0; i < 500 && (int) scope.get("other").get() != 5; ++i) {
+            Thread.sleep(10);
+         }
+
+         assertEquals(2, (int) scope.get("count").get());
+         assertEquals(5, (int) scope.get("other").get());
+         assertEquals(1, (int) changes.get("text"));
+
+         Files.write(file, "count=3\nother=oops\n".getBytes("UTF-8"));
+         for(int i = 0; i < 500 && errors.isEmpty(); ++i) {
+            Thread.sleep(10);
+         }
+
+         assertEquals(1, errors.size());
+         assertEquals(2, (int) scope.get("count").get());
+         assertEquals(2, (int) changes.get("count"));
+      } finally {
+         Files.deleteIfExists(file);
+         Files.delete(directory);
+      }
+   }
+
+   private static Scope exportScope() throws ScopeException {
+      Scope scope = new Scope();
+      scope.create("text", String.class);
+      scope.create("empty", String.class);
+      scope.create("missing", String.class);
+      scope.create("count", int.class, "A count, in units", 0);
+      scope.create("ratio", double.class);
+      scope.create("weight", Double.class, 1.5);
+      scope.create("flag", boolean.class);
+      scope.create("state", Thread.State.class);
+      scope.create("key with spaces=:", String.class, "Spans\nlines", null);
+      return scope;
+   }
+}